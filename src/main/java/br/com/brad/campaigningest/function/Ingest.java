@@ -6,7 +6,6 @@ import java.util.function.Consumer;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -17,8 +16,12 @@ import lombok.extern.log4j.Log4j2;
 import io.micrometer.tracing.Tracer;
 
 import br.com.brad.campaigningest.exception.RequiredFieldException;
+import br.com.brad.campaigningest.jfr.IngestStage;
+import br.com.brad.campaigningest.jfr.IngestStageEvent;
+import br.com.brad.campaigningest.jfr.IngestStageRecorder;
 import br.com.brad.campaigningest.mapper.OptinMessageMapper;
 import br.com.brad.campaigningest.model.request.OptinMessage;
+import br.com.brad.campaigningest.publisher.OptinPublisher;
 
 /**
  * Configuração responsável pelo fluxo de ingestão de mensagens de opt-in dos clientes que não finalizaram a contratacao de CP.
@@ -30,13 +33,15 @@ import br.com.brad.campaigningest.model.request.OptinMessage;
  *   <li>Valida a entrada usando {@link Validator};</li>
  *   <li>Converte o DTO de requisição para o formato de saída via {@link OptinMessageMapper};</li>
  *   <li>Serializa a mensagem para JSON com {@link ObjectMapper};</li>
- *   <li>Publica no RabbitMQ através de {@link RabbitTemplate}.</li>
+ *   <li>Publica no RabbitMQ através de {@link OptinPublisher}, em um ou mais brokers.</li>
  * </ol>
  *
  * <h2>Observações</h2>
  * <ul>
  *   <li>Logs de depuração são emitidos para início e fim do processamento.</li>
  *   <li>O <em>span</em> criado é finalizado ao término do fluxo, com ou sem erro.</li>
+ *   <li>Cada etapa (validação, mapeamento, serialização, publicação e confirmação) é registrada
+ *       como {@link IngestStageEvent} no Java Flight Recorder.</li>
  * </ul>
  *
  * @since 1.0
@@ -46,12 +51,15 @@ import br.com.brad.campaigningest.model.request.OptinMessage;
 @RequiredArgsConstructor
 public class Ingest {
 
+    private static final String EXCHANGE = "campaign";
+    private static final String ROUTING_KEY = "campaign";
+
     private final Validator validated;
     /**
      * Componente de rastreamento (Micrometer) para criação e escopo do <em>span</em>.
      */
     private final Tracer tracer;
-    private final RabbitTemplate rabbitTemplate;
+    private final OptinPublisher optinPublisher;
     private final ObjectMapper objectMapper;
 
     /**
@@ -63,7 +71,8 @@ public class Ingest {
      *   <li>Valida a requisição e lança {@link RequiredFieldException} em caso de erros;</li>
      *   <li>Converte a entrada com {@link OptinMessageMapper#INSTANCE};</li>
      *   <li>Serializa para JSON e envia para o RabbitMQ (exchange {@code "campaign"},
-     *       routing key {@code "campaign"});</li>
+     *       routing key {@code "campaign"}), usando o email como chave de distribuição entre brokers;</li>
+     *   <li>Registra a duração e o resultado de cada etapa com {@link IngestStageRecorder};</li>
      *   <li>Finaliza o <em>span</em> no bloco {@code finally}.</li>
      * </ol>
      *
@@ -75,20 +84,34 @@ public class Ingest {
     public Consumer<OptinMessage> processMessage() {
         return value -> {
             var newSpan = tracer.nextSpan().name("processMessage").start();
+            var recorder = new IngestStageRecorder(ROUTING_KEY);
 
             try(Tracer.SpanInScope ws = tracer.withSpan(newSpan)) {
                 log.debug("Iniciando processamento da mensagem de opt-in");
 
+                recorder.begin(IngestStage.VALIDATE);
                 validateOrThrow(value);
+
+                recorder.begin(IngestStage.MAP);
                 var optinMessage = OptinMessageMapper.INSTANCE.convert(value);
 
-                rabbitTemplate.convertAndSend("campaign", "campaign",
-                        objectMapper.writeValueAsString(optinMessage));
+                recorder.begin(IngestStage.SERIALIZE);
+                var payload = objectMapper.writeValueAsString(optinMessage);
+                recorder.payload(payload);
+
+                recorder.begin(IngestStage.PUBLISH);
+                var correlationData = recorder.awaitConfirm(optinPublisher.confirmsEnabled());
+                optinPublisher.publish(EXCHANGE, ROUTING_KEY, value.email(), payload, correlationData);
+                recorder.end();
 
                 log.debug("Processamento concluído com sucesso");
 
             } catch (JsonProcessingException e) {
+                recorder.fail(e);
                 throw new RuntimeException(e);
+            } catch (RuntimeException e) {
+                recorder.fail(e);
+                throw e;
             } finally {
                 newSpan.end();
             }
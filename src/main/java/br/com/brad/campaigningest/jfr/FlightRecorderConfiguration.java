@@ -0,0 +1,29 @@
+package br.com.brad.campaigningest.jfr;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do endpoint do actuator que controla gravações do Java Flight Recorder.
+ *
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+public class FlightRecorderConfiguration {
+
+    /**
+     * Cria o endpoint {@code flightrecorder} apenas quando ele está habilitado e exposto
+     * ({@code management.endpoints.web.exposure.include}), como os endpoints do próprio Spring Boot.
+     *
+     * @param properties propriedades da gravação
+     * @return o endpoint do actuator
+     */
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public FlightRecorderEndpoint flightRecorderEndpoint(FlightRecorderProperties properties) {
+        return new FlightRecorderEndpoint(properties);
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.brad.campaigningest.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Endpoint do actuator ({@code /actuator/flightrecorder}) para capturar gravações do Java Flight
+ * Recorder em produção sem anexar um profiler.
+ *
+ * <ul>
+ *   <li>{@code POST}: inicia a gravação com o perfil {@link FlightRecorderProperties#settings()};</li>
+ *   <li>{@code GET}: retorna um <em>dump</em> ({@code .jfr}) da gravação em andamento, ou 404 se não houver;</li>
+ *   <li>{@code DELETE}: encerra e descarta a gravação.</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+@Log4j2
+@Endpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+
+    static final String RECORDING_NAME = "campaign-ingest";
+
+    private final FlightRecorderProperties properties;
+
+    private Recording recording;
+
+    /**
+     * Inicia a gravação, caso ainda não exista uma em andamento.
+     *
+     * @return estado da gravação
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (Objects.isNull(recording)) {
+            recording = new Recording(readConfiguration());
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(properties.maxAge());
+            recording.setMaxSize(properties.maxSize().toBytes());
+            recording.start();
+            log.info("Gravação JFR {} iniciada", RECORDING_NAME);
+        }
+        return status();
+    }
+
+    /**
+     * Gera um <em>dump</em> da gravação em andamento.
+     *
+     * <p>Cada requisição usa um arquivo temporário próprio, removido quando a resposta termina de ser
+     * enviada; requisições simultâneas não interferem umas nas outras.</p>
+     *
+     * @return o arquivo {@code .jfr} gerado, ou {@code null} (404) quando não há gravação
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump() {
+        Path file = null;
+        try {
+            file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            synchronized (this) {
+                if (Objects.isNull(recording)) {
+                    Files.delete(file);
+                    return null;
+                }
+                recording.dump(file);
+            }
+            return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Não foi possível gerar o dump da gravação JFR", e);
+        }
+    }
+
+    /**
+     * Encerra e descarta a gravação em andamento.
+     *
+     * @return estado da gravação
+     */
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (Objects.nonNull(recording)) {
+            recording.close();
+            recording = null;
+            log.info("Gravação JFR {} encerrada", RECORDING_NAME);
+        }
+        return status();
+    }
+
+    private Map<String, Object> status() {
+        var status = new LinkedHashMap<String, Object>();
+        status.put("name", RECORDING_NAME);
+        status.put("state", Objects.isNull(recording) ? RecordingState.CLOSED : recording.getState());
+        if (Objects.nonNull(recording)) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("maxSize", recording.getMaxSize());
+        }
+        return status;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (Objects.isNull(file)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Falha ao remover o dump JFR {}", file, e);
+        }
+    }
+
+    private Configuration readConfiguration() {
+        try (var reader = new InputStreamReader(properties.settings().getInputStream(), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o perfil JFR " + properties.settings(), e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Perfil JFR inválido: " + properties.settings(), e);
+        }
+    }
+}
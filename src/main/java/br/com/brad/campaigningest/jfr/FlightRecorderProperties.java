@@ -0,0 +1,22 @@
+package br.com.brad.campaigningest.jfr;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Propriedades da gravação JFR controlada pelo endpoint {@code flightrecorder} ({@code campaign.ingest.jfr.*}).
+ *
+ * @param settings arquivo {@code .jfc} com as configurações dos eventos gravados
+ * @param maxAge   tempo máximo de dados mantidos pela gravação
+ * @param maxSize  tamanho máximo de dados mantidos pela gravação
+ * @since 1.0
+ */
+@ConfigurationProperties(prefix = "campaign.ingest.jfr")
+public record FlightRecorderProperties(@DefaultValue("classpath:jfr/campaign-ingest.jfc") Resource settings,
+                                       @DefaultValue("15m") Duration maxAge,
+                                       @DefaultValue("250MB") DataSize maxSize) {
+}
@@ -0,0 +1,14 @@
+package br.com.brad.campaigningest.jfr;
+
+/**
+ * Etapas do fluxo de ingestão registradas em {@link IngestStageEvent}.
+ *
+ * @since 1.0
+ */
+public enum IngestStage {
+    VALIDATE,
+    MAP,
+    SERIALIZE,
+    PUBLISH,
+    CONFIRM
+}
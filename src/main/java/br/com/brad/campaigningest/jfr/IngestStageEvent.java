@@ -0,0 +1,47 @@
+package br.com.brad.campaigningest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder emitido para cada etapa do processamento de uma mensagem de opt-in.
+ *
+ * <p>A duração do evento corresponde ao tempo gasto na etapa. Quando não há gravação ativa
+ * (ou o evento está desabilitado nas configurações), {@link #shouldCommit()} retorna {@code false}
+ * e nenhum campo é preenchido.</p>
+ *
+ * @see IngestStageRecorder
+ * @since 1.0
+ */
+@Name(IngestStageEvent.NAME)
+@Label("Ingest Stage")
+@Category("Campaign Ingest")
+@Description("Etapa do processamento de uma mensagem de opt-in")
+@StackTrace(false)
+public class IngestStageEvent extends Event {
+
+    /**
+     * Nome do evento, usado nos arquivos de configuração ({@code .jfc}) do JFR.
+     */
+    public static final String NAME = "br.com.brad.campaigningest.IngestStage";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Payload Size")
+    @Description("Tamanho do payload serializado em bytes UTF-8; zero antes da etapa SERIALIZE")
+    @DataAmount
+    long payloadSize;
+
+    @Label("Outcome")
+    @Description("SUCCESS, ACK, NACK ou o nome simples da exceção lançada")
+    String outcome;
+
+    @Label("Routing Key")
+    String routingKey;
+}
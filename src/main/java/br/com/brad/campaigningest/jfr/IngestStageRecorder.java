@@ -0,0 +1,152 @@
+package br.com.brad.campaigningest.jfr;
+
+import java.util.Objects;
+
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+/**
+ * Registra as etapas de processamento de uma única mensagem como {@link IngestStageEvent}.
+ *
+ * <p>Cada chamada a {@link #begin(IngestStage)} encerra a etapa corrente com sucesso e inicia a
+ * próxima; {@link #fail(Throwable)} encerra a etapa corrente com o nome da exceção como resultado.
+ * Instâncias não são thread-safe e devem ser usadas por uma única mensagem.</p>
+ *
+ * <h2>Exemplo de uso</h2>
+ * <pre>{@code
+ * var recorder = new IngestStageRecorder("campaign");
+ * recorder.begin(IngestStage.VALIDATE);
+ * validate(value);
+ * recorder.begin(IngestStage.MAP);
+ * var mapped = map(value);
+ * recorder.end();
+ * }</pre>
+ *
+ * <p>Os campos dos eventos só são preenchidos após {@link IngestStageEvent#shouldCommit()}; sem gravação
+ * ativa o custo se limita à criação dos eventos.</p>
+ *
+ * @since 1.0
+ */
+public class IngestStageRecorder {
+
+    static final String SUCCESS = "SUCCESS";
+    static final String ACK = "ACK";
+    static final String NACK = "NACK";
+
+    private final String routingKey;
+    private IngestStage currentStage;
+    private IngestStageEvent current;
+    private String payload;
+
+    public IngestStageRecorder(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    /**
+     * Encerra a etapa corrente com sucesso e inicia a medição da etapa informada.
+     *
+     * @param stage etapa a ser iniciada
+     */
+    public void begin(IngestStage stage) {
+        commit(SUCCESS);
+        currentStage = stage;
+        current = new IngestStageEvent();
+        current.begin();
+    }
+
+    /**
+     * Define o payload serializado cujo tamanho, em bytes UTF-8, é registrado nas etapas seguintes.
+     * O tamanho só é calculado quando um evento é efetivamente gravado.
+     *
+     * @param payload mensagem serializada
+     */
+    public void payload(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Encerra a etapa corrente com sucesso.
+     */
+    public void end() {
+        commit(SUCCESS);
+    }
+
+    /**
+     * Encerra a etapa corrente registrando a falha.
+     *
+     * @param cause exceção que interrompeu o processamento
+     */
+    public void fail(Throwable cause) {
+        commit(cause.getClass().getSimpleName());
+    }
+
+    /**
+     * Prepara o registro da etapa {@link IngestStage#CONFIRM}, emitida quando o broker confirmar a publicação.
+     *
+     * <p>Deve ser chamado antes da publicação; a duração vai do envio até o <em>publisher confirm</em>.
+     * Só cria o {@link CorrelationData} (cujo identificador usa {@code UUID.randomUUID()}) quando os
+     * confirms estão habilitados e o evento está ativo em alguma gravação.</p>
+     *
+     * @param confirms indica se o publicador usa <em>publisher confirms</em>
+     * @return dados de correlação a serem enviados com a mensagem, ou {@code null} quando não há o que registrar
+     */
+    public CorrelationData awaitConfirm(boolean confirms) {
+        if (!confirms) {
+            return null;
+        }
+        var event = new IngestStageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        var correlationData = new CorrelationData();
+        correlationData.getFuture().whenComplete((confirm, error) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                var outcome = Objects.nonNull(error) ? error.getClass().getSimpleName() : confirm.isAck() ? ACK : NACK;
+                fill(event, IngestStage.CONFIRM, outcome);
+                event.commit();
+            }
+        });
+        return correlationData;
+    }
+
+    private void commit(String outcome) {
+        if (Objects.isNull(current)) {
+            return;
+        }
+        current.end();
+        if (current.shouldCommit()) {
+            fill(current, currentStage, outcome);
+            current.commit();
+        }
+        current = null;
+    }
+
+    private void fill(IngestStageEvent event, IngestStage stage, String outcome) {
+        event.stage = stage.name();
+        event.routingKey = routingKey;
+        event.payloadSize = Objects.isNull(payload) ? 0 : utf8Length(payload);
+        event.outcome = outcome;
+    }
+
+    /**
+     * @return quantidade de bytes de {@code value} codificado em UTF-8, sem alocar o array
+     */
+    static long utf8Length(CharSequence value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,277 @@
+package br.com.brad.campaigningest.publisher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.rabbitmq.client.BlockedListener;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Saúde de um broker usada pelo {@link ShardedPublisher} para decidir quanto tráfego ele recebe.
+ *
+ * <h2>Estados</h2>
+ * <ul>
+ *   <li><strong>HEALTHY</strong>: recebe a fração total do seu peso;</li>
+ *   <li><strong>EJECTED</strong>: fora de rotação durante {@link ShardingProperties.Health#ejectionTime()},
+ *       após exceder a latência média ou o número de falhas consecutivas;</li>
+ *   <li><strong>RECOVERING</strong>: readmitido com {@value #MIN_SHARE} do peso, crescendo linearmente até
+ *       o peso total ao fim de {@link ShardingProperties.Health#warmup()}. Qualquer falha ou latência
+ *       acima do limite o remove novamente.</li>
+ * </ul>
+ *
+ * <p>Enquanto o broker sinaliza {@code connection.blocked} (alarme de memória/disco), ele não recebe
+ * tráfego, independentemente do estado; por isso esta classe é registrada como {@link BlockedListener}
+ * nas conexões do broker.</p>
+ *
+ * <p>Publicações em andamento também são acompanhadas: se a mais antiga estiver há mais de
+ * {@link ShardingProperties.Health#maxLatency()} sem retornar (broker que parou de ler ou está
+ * inacessível), o broker é removido da rotação sem esperar o término da publicação travada.</p>
+ *
+ * <p>Todos os métodos são chamados a cada publicação, por vários <em>threads</em>; o estado é mantido em
+ * campos atômicos, sem monitores, e o acompanhamento das publicações em andamento não aloca memória.</p>
+ *
+ * @since 1.0
+ */
+@Log4j2
+public class BrokerHealth implements BlockedListener {
+
+    /**
+     * Fração do peso concedida a um broker assim que é readmitido.
+     */
+    static final double MIN_SHARE = 0.1;
+
+    /**
+     * Fator de suavização da média móvel exponencial da latência.
+     */
+    private static final double ALPHA = 0.2;
+
+    /**
+     * Quantidade de publicações em andamento acompanhadas simultaneamente. Acima disso as publicações não
+     * são registradas, mas as que ocupam os slots continuam denunciando um broker travado.
+     */
+    static final int IN_FLIGHT_SLOTS = 64;
+
+    /**
+     * Valor de um slot livre; um início de publicação com este valor é registrado como {@code FREE + 1}.
+     */
+    private static final long FREE = 0;
+
+    private static final long NO_LATENCY = Double.doubleToRawLongBits(Double.NaN);
+
+    public enum State { HEALTHY, EJECTED, RECOVERING }
+
+    /**
+     * Estado atual e o instante em que foi alcançado, trocados atomicamente.
+     */
+    private record Phase(State state, long since) {
+    }
+
+    private final String name;
+    private final ShardingProperties.Health thresholds;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Phase> phase;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong latencyEwma = new AtomicLong(NO_LATENCY);
+    private final AtomicLongArray inFlight = new AtomicLongArray(IN_FLIGHT_SLOTS);
+    private volatile boolean blocked;
+
+    public BrokerHealth(String name, ShardingProperties.Health thresholds) {
+        this(name, thresholds, System::nanoTime);
+    }
+
+    public BrokerHealth(String name, ShardingProperties.Health thresholds, LongSupplier nanoClock) {
+        this.name = name;
+        this.thresholds = thresholds;
+        this.nanoClock = nanoClock;
+        this.phase = new AtomicReference<>(new Phase(State.HEALTHY, nanoClock.getAsLong()));
+    }
+
+    /**
+     * @return fração do peso configurado que o broker deve receber agora, entre {@code 0} e {@code 1}
+     */
+    public double trafficShare() {
+        if (blocked) {
+            return 0;
+        }
+        var now = nanoClock.getAsLong();
+        var oldest = oldestInFlight();
+        if (oldest != FREE && now - oldest > thresholds.maxLatency().toNanos()) {
+            eject("publicação em andamento há %d ms".formatted((now - oldest) / 1_000_000));
+            return 0;
+        }
+        var current = phase.get();
+        var elapsed = now - current.since();
+        return switch (current.state()) {
+            case HEALTHY -> 1;
+            case EJECTED -> {
+                if (elapsed < thresholds.ejectionTime().toNanos()) {
+                    yield 0;
+                }
+                if (transition(current, State.RECOVERING)) {
+                    log.info("Broker {} readmitido gradualmente na rotação", name);
+                }
+                yield MIN_SHARE;
+            }
+            case RECOVERING -> {
+                var warmup = thresholds.warmup().toNanos();
+                if (elapsed >= warmup) {
+                    transition(current, State.HEALTHY);
+                    yield 1;
+                }
+                yield MIN_SHARE + (1 - MIN_SHARE) * elapsed / warmup;
+            }
+        };
+    }
+
+    /**
+     * Registra a latência de uma publicação.
+     *
+     * @param nanos duração da publicação em nanossegundos
+     */
+    public void recordLatency(long nanos) {
+        double updated;
+        long current;
+        do {
+            current = latencyEwma.get();
+            var average = Double.longBitsToDouble(current);
+            updated = Double.isNaN(average) ? nanos : average + ALPHA * (nanos - average);
+        } while (!latencyEwma.compareAndSet(current, Double.doubleToRawLongBits(updated)));
+
+        if (updated > thresholds.maxLatency().toNanos()) {
+            eject("latência média de %d ms".formatted((long) updated / 1_000_000));
+        }
+    }
+
+    /**
+     * Registra uma publicação bem-sucedida, zerando as falhas consecutivas.
+     */
+    public void recordSuccess() {
+        // evita escrever na linha de cache compartilhada quando não há falhas registradas
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * Registra uma falha de publicação ou um <em>nack</em> do broker.
+     */
+    public void recordFailure() {
+        var failures = consecutiveFailures.incrementAndGet();
+        if (phase.get().state() == State.RECOVERING || failures >= thresholds.maxConsecutiveFailures()) {
+            eject("%d falhas consecutivas".formatted(failures));
+        }
+    }
+
+    /**
+     * Registra o início de uma publicação em um slot livre, começando pelo slot associado ao <em>thread</em>.
+     *
+     * @return identificador a ser informado em {@link #sendFinished(long)} e {@link #elapsedSince(long)}
+     */
+    public long sendStarted() {
+        var start = nanoClock.getAsLong();
+        var token = start == FREE ? FREE + 1 : start;
+        var first = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < IN_FLIGHT_SLOTS; i++) {
+            var slot = (first + i) & (IN_FLIGHT_SLOTS - 1);
+            if (inFlight.get(slot) == FREE && inFlight.compareAndSet(slot, FREE, token)) {
+                return token;
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Registra o término (com ou sem erro) de uma publicação. Publicações iniciadas no mesmo instante são
+     * indistinguíveis para a detecção de travamento, então qualquer slot com o mesmo identificador é liberado.
+     *
+     * @param token identificador retornado por {@link #sendStarted()}
+     */
+    public void sendFinished(long token) {
+        var first = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < IN_FLIGHT_SLOTS; i++) {
+            var slot = (first + i) & (IN_FLIGHT_SLOTS - 1);
+            if (inFlight.get(slot) == token && inFlight.compareAndSet(slot, token, FREE)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param token identificador retornado por {@link #sendStarted()}
+     * @return nanossegundos decorridos desde o início da publicação
+     */
+    public long elapsedSince(long token) {
+        return nanoClock.getAsLong() - token;
+    }
+
+    @Override
+    public void handleBlocked(String reason) {
+        blocked = true;
+        log.warn("Broker {} bloqueado: {}", name, reason);
+    }
+
+    @Override
+    public void handleUnblocked() {
+        blocked = false;
+        log.warn("Broker {} desbloqueado", name);
+    }
+
+    /**
+     * @return prazo para o <em>publisher confirm</em> de uma publicação neste broker
+     */
+    public Duration confirmTimeout() {
+        return thresholds.confirmTimeout();
+    }
+
+    /**
+     * @return estado atual do broker na rotação
+     */
+    public State state() {
+        return phase.get().state();
+    }
+
+    /**
+     * @return {@code true} enquanto o broker sinaliza {@code connection.blocked}
+     */
+    public boolean isBlocked() {
+        return blocked;
+    }
+
+    /**
+     * @return início da publicação em andamento mais antiga, ou {@link #FREE} se não houver
+     */
+    private long oldestInFlight() {
+        var oldest = FREE;
+        for (int slot = 0; slot < IN_FLIGHT_SLOTS; slot++) {
+            var start = inFlight.get(slot);
+            if (start != FREE && (oldest == FREE || start - oldest < 0)) {
+                oldest = start;
+            }
+        }
+        return oldest;
+    }
+
+    private void eject(String reason) {
+        var current = phase.get();
+        if (current.state() != State.EJECTED && transition(current, State.EJECTED)) {
+            log.warn("Broker {} removido da rotação: {}", name, reason);
+        }
+    }
+
+    /**
+     * @return {@code true} se este <em>thread</em> realizou a transição; {@code false} se outro a fez antes
+     */
+    private boolean transition(Phase current, State newState) {
+        if (!phase.compareAndSet(current, new Phase(newState, nanoClock.getAsLong()))) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        latencyEwma.set(NO_LATENCY);
+        return true;
+    }
+}
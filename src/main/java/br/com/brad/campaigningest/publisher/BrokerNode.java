@@ -0,0 +1,16 @@
+package br.com.brad.campaigningest.publisher;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * Broker participante da publicação em múltiplos brokers.
+ *
+ * @param name     identificador do broker
+ * @param weight   peso relativo configurado
+ * @param template template conectado exclusivamente a este broker
+ * @param confirms indica se o template usa <em>publisher confirms</em>
+ * @param health   saúde observada do broker
+ * @since 1.0
+ */
+public record BrokerNode(String name, int weight, RabbitTemplate template, boolean confirms, BrokerHealth health) {
+}
@@ -0,0 +1,36 @@
+package br.com.brad.campaigningest.publisher;
+
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+/**
+ * Ponto de publicação das mensagens de opt-in no RabbitMQ.
+ *
+ * <p>Implementações disponíveis:</p>
+ * <ul>
+ *   <li>{@link RabbitTemplatePublisher}: broker único configurado em {@code spring.rabbitmq.*} (padrão);</li>
+ *   <li>{@link ShardedPublisher}: conjunto de brokers independentes, com seleção ponderada ou por chave
+ *       e remoção automática de nós doentes ({@code campaign.ingest.sharding.enabled=true}).</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+public interface OptinPublisher {
+
+    /**
+     * Publica o payload na exchange informada.
+     *
+     * @param exchange        exchange de destino
+     * @param routingKey      routing key da mensagem
+     * @param shardKey        chave usada na seleção do broker pela estratégia {@code KEY_HASH}; pode ser nula
+     * @param payload         mensagem serializada
+     * @param correlationData dados de correlação para <em>publisher confirms</em>; pode ser nulo
+     * @throws org.springframework.amqp.AmqpException quando nenhum broker aceitar a publicação
+     */
+    void publish(String exchange, String routingKey, String shardKey, String payload, CorrelationData correlationData);
+
+    /**
+     * @return {@code true} se o broker confirmará as publicações (<em>publisher confirms</em>), completando
+     *         o futuro do {@link CorrelationData} informado
+     */
+    boolean confirmsEnabled();
+}
@@ -0,0 +1,116 @@
+package br.com.brad.campaigningest.publisher;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.RabbitConnectionFactoryBean;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.amqp.CachingConnectionFactoryConfigurer;
+import org.springframework.boot.autoconfigure.amqp.ConnectionFactoryCustomizer;
+import org.springframework.boot.autoconfigure.amqp.RabbitConnectionFactoryBeanConfigurer;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do {@link OptinPublisher} utilizado pelo fluxo de ingestão.
+ *
+ * <p>Por padrão publica no broker único de {@code spring.rabbitmq.*}. Com
+ * {@code campaign.ingest.sharding.enabled=true}, cria um {@link CachingConnectionFactory} e um
+ * {@link RabbitTemplate} por broker de {@code campaign.ingest.sharding.nodes} e distribui as
+ * publicações com o {@link ShardedPublisher}.</p>
+ *
+ * <p>Os brokers são montados com os mesmos <em>configurers</em> do Spring Boot usados no broker único,
+ * herdando todas as propriedades {@code spring.rabbitmq.*} (credenciais, SSL, timeouts, heartbeat,
+ * cache de canais, confirms, retry e mandatory do template); apenas o endereço vem do nó.</p>
+ *
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class PublisherConfiguration {
+
+    /**
+     * @param rabbitTemplate template autoconfigurado para {@code spring.rabbitmq.*}
+     * @return publicador de broker único
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "campaign.ingest.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public OptinPublisher rabbitTemplatePublisher(RabbitTemplate rabbitTemplate) {
+        return new RabbitTemplatePublisher(rabbitTemplate);
+    }
+
+    /**
+     * @param sharding                   brokers e limites de saúde
+     * @param connectionFactoryBeanConfigurer configura o {@code ConnectionFactory} do cliente AMQP (SSL, timeouts, heartbeat)
+     * @param cachingConfigurer          configura o cache de canais e os <em>publisher confirms</em>
+     * @param templateConfigurer         configura o {@link RabbitTemplate} (retry, mandatory, exchange padrão)
+     * @param connectionFactoryCustomizers customizações adicionais do {@code ConnectionFactory} do cliente AMQP
+     * @return publicador em múltiplos brokers
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "campaign.ingest.sharding", name = "enabled", havingValue = "true")
+    public ShardedPublisher shardedPublisher(ShardingProperties sharding,
+                                             RabbitConnectionFactoryBeanConfigurer connectionFactoryBeanConfigurer,
+                                             CachingConnectionFactoryConfigurer cachingConfigurer,
+                                             RabbitTemplateConfigurer templateConfigurer,
+                                             ObjectProvider<ConnectionFactoryCustomizer> connectionFactoryCustomizers) {
+        var nodes = sharding.nodes().stream()
+                .map(node -> createNode(node, sharding.health(), connectionFactoryBeanConfigurer, cachingConfigurer,
+                        templateConfigurer, connectionFactoryCustomizers))
+                .toList();
+        return new ShardedPublisher(nodes, sharding.strategy());
+    }
+
+    /**
+     * Substitui o indicador de saúde do RabbitMQ autoconfigurado (mesmo nome de bean), que verificaria o
+     * broker de {@code spring.rabbitmq.host}, não utilizado neste modo.
+     *
+     * @param shardedPublisher publicador com os brokers configurados
+     * @return indicador de saúde dos brokers configurados
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "campaign.ingest.sharding", name = "enabled", havingValue = "true")
+    public HealthIndicator rabbitHealthContributor(ShardedPublisher shardedPublisher) {
+        return new ShardedBrokersHealthIndicator(shardedPublisher.nodes());
+    }
+
+    private static BrokerNode createNode(ShardingProperties.Node node, ShardingProperties.Health thresholds,
+                                         RabbitConnectionFactoryBeanConfigurer connectionFactoryBeanConfigurer,
+                                         CachingConnectionFactoryConfigurer cachingConfigurer,
+                                         RabbitTemplateConfigurer templateConfigurer,
+                                         ObjectProvider<ConnectionFactoryCustomizer> connectionFactoryCustomizers) {
+        var health = new BrokerHealth(node.name(), thresholds);
+
+        var connectionFactory = new CachingConnectionFactory(createRabbitConnectionFactory(connectionFactoryBeanConfigurer,
+                connectionFactoryCustomizers));
+        cachingConfigurer.configure(connectionFactory);
+        // o configurer sempre aplica spring.rabbitmq.addresses/host, que têm precedência sobre host e porta
+        connectionFactory.setAddresses(node.host() + ":" + node.port());
+        connectionFactory.setHost(node.host());
+        connectionFactory.setPort(node.port());
+        connectionFactory.addConnectionListener(connection -> connection.addBlockedListener(health));
+
+        var template = new RabbitTemplate();
+        templateConfigurer.configure(template, connectionFactory);
+
+        return new BrokerNode(node.name(), node.weight(), template, connectionFactory.isPublisherConfirms(), health);
+    }
+
+    private static com.rabbitmq.client.ConnectionFactory createRabbitConnectionFactory(
+            RabbitConnectionFactoryBeanConfigurer connectionFactoryBeanConfigurer,
+            ObjectProvider<ConnectionFactoryCustomizer> connectionFactoryCustomizers) {
+        var factoryBean = new RabbitConnectionFactoryBean();
+        connectionFactoryBeanConfigurer.configure(factoryBean);
+        try {
+            factoryBean.afterPropertiesSet();
+            var rabbitConnectionFactory = factoryBean.getObject();
+            connectionFactoryCustomizers.orderedStream().forEach(customizer -> customizer.customize(rabbitConnectionFactory));
+            return rabbitConnectionFactory;
+        } catch (Exception e) {
+            throw new IllegalStateException("Não foi possível criar a conexão com o broker", e);
+        }
+    }
+}
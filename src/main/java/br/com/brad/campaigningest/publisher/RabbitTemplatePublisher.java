@@ -0,0 +1,30 @@
+package br.com.brad.campaigningest.publisher;
+
+import java.util.Objects;
+
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publica todas as mensagens no broker único configurado em {@code spring.rabbitmq.*}.
+ *
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+public class RabbitTemplatePublisher implements OptinPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Override
+    public void publish(String exchange, String routingKey, String shardKey, String payload, CorrelationData correlationData) {
+        rabbitTemplate.convertAndSend(exchange, routingKey, payload, correlationData);
+    }
+
+    @Override
+    public boolean confirmsEnabled() {
+        var connectionFactory = rabbitTemplate.getConnectionFactory();
+        return Objects.nonNull(connectionFactory) && connectionFactory.isPublisherConfirms();
+    }
+}
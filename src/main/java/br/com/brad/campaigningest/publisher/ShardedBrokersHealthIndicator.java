@@ -0,0 +1,51 @@
+package br.com.brad.campaigningest.publisher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.boot.actuate.amqp.RabbitHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Indicador de saúde do RabbitMQ quando a publicação em múltiplos brokers está habilitada.
+ *
+ * <p>Substitui o indicador autoconfigurado, que verificaria apenas o broker de {@code spring.rabbitmq.host}
+ * (não utilizado neste modo). Cada broker configurado é verificado com um {@link RabbitHealthIndicator}
+ * próprio e detalhado com o estado observado pelo {@link BrokerHealth}. A aplicação é considerada
+ * {@code UP} enquanto ao menos um broker estiver acessível e em rotação.</p>
+ *
+ * @since 1.0
+ */
+public class ShardedBrokersHealthIndicator implements HealthIndicator {
+
+    private final List<BrokerNode> nodes;
+    private final List<RabbitHealthIndicator> connectivity;
+
+    public ShardedBrokersHealthIndicator(List<BrokerNode> nodes) {
+        this.nodes = nodes;
+        this.connectivity = nodes.stream().map(node -> new RabbitHealthIndicator(node.template())).toList();
+    }
+
+    @Override
+    public Health health() {
+        var available = false;
+        var details = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < nodes.size(); i++) {
+            var node = nodes.get(i);
+            var connection = connectivity.get(i).health();
+            var trafficShare = node.health().trafficShare();
+
+            var nodeDetails = new LinkedHashMap<String, Object>(connection.getDetails());
+            nodeDetails.put("status", connection.getStatus().getCode());
+            nodeDetails.put("state", node.health().state());
+            nodeDetails.put("blocked", node.health().isBlocked());
+            nodeDetails.put("trafficShare", trafficShare);
+            details.put(node.name(), nodeDetails);
+
+            available |= Status.UP.equals(connection.getStatus()) && trafficShare > 0;
+        }
+        return (available ? Health.up() : Health.down()).withDetails(details).build();
+    }
+}
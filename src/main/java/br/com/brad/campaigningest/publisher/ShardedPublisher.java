@@ -0,0 +1,229 @@
+package br.com.brad.campaigningest.publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.DisposableBean;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Distribui as publicações entre um conjunto de brokers RabbitMQ independentes.
+ *
+ * <p>Para cada mensagem:</p>
+ * <ol>
+ *   <li>Seleciona um broker conforme a {@link ShardingProperties.Strategy estratégia}, usando o peso
+ *       configurado multiplicado pela {@link BrokerHealth#trafficShare() fração de tráfego} atual;</li>
+ *   <li>Publica e registra a latência; a publicação fica marcada como em andamento no
+ *       {@link BrokerHealth}, que remove o broker se ela travar. Com <em>publisher confirms</em>
+ *       habilitados, acks, nacks e confirms não recebidos no prazo alimentam o contador de falhas;</li>
+ *   <li>Em caso de exceção, registra a falha e tenta o próximo broker ainda não utilizado.</li>
+ * </ol>
+ *
+ * <p>Se todos os brokers estiverem fora de rotação, a seleção ignora a saúde e usa apenas os pesos
+ * configurados, evitando descartar mensagens por um falso positivo.</p>
+ *
+ * @since 1.0
+ */
+@Log4j2
+public class ShardedPublisher implements OptinPublisher, DisposableBean {
+
+    private final List<BrokerNode> nodes;
+    private final ShardingProperties.Strategy strategy;
+    private final boolean confirmsEnabled;
+
+    /**
+     * Indica se todos os brokers estavam fora de rotação na última seleção.
+     */
+    private final AtomicBoolean allEjected = new AtomicBoolean();
+
+    public ShardedPublisher(List<BrokerNode> nodes, ShardingProperties.Strategy strategy) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Ao menos um broker deve ser configurado em campaign.ingest.sharding.nodes");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.strategy = strategy;
+        this.confirmsEnabled = nodes.stream().allMatch(BrokerNode::confirms);
+    }
+
+    @Override
+    public void publish(String exchange, String routingKey, String shardKey, String payload, CorrelationData correlationData) {
+        var attempted = new ArrayList<BrokerNode>(nodes.size());
+        AmqpException lastError = null;
+
+        while (attempted.size() < nodes.size()) {
+            var node = select(shardKey, attempted);
+            attempted.add(node);
+
+            var attemptCorrelation = node.confirms() ? new CorrelationData() : null;
+            var token = node.health().sendStarted();
+            try {
+                node.template().convertAndSend(exchange, routingKey, payload, attemptCorrelation);
+                node.health().recordLatency(node.health().elapsedSince(token));
+                trackOutcome(node, attemptCorrelation, correlationData);
+                return;
+            } catch (AmqpException e) {
+                log.warn("Falha ao publicar no broker {}", node.name(), e);
+                node.health().recordFailure();
+                lastError = e;
+            } finally {
+                node.health().sendFinished(token);
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * @return brokers participantes da distribuição
+     */
+    public List<BrokerNode> nodes() {
+        return nodes;
+    }
+
+    @Override
+    public boolean confirmsEnabled() {
+        return confirmsEnabled;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (var node : nodes) {
+            if (node.template().getConnectionFactory() instanceof DisposableBean connectionFactory) {
+                connectionFactory.destroy();
+            }
+        }
+    }
+
+    /**
+     * Seleciona o broker para a mensagem, ignorando os já tentados.
+     *
+     * @param shardKey chave da mensagem; quando nula, a estratégia {@code KEY_HASH} usa sorteio ponderado
+     * @param excluded brokers já tentados para esta mensagem
+     * @return o broker selecionado
+     */
+    BrokerNode select(String shardKey, List<BrokerNode> excluded) {
+        var weights = new double[nodes.size()];
+        var available = false;
+        for (int i = 0; i < nodes.size(); i++) {
+            var node = nodes.get(i);
+            if (!excluded.contains(node)) {
+                weights[i] = node.weight() * node.health().trafficShare();
+                available |= weights[i] > 0;
+            }
+        }
+
+        // registra apenas a entrada e a saída da condição, avaliada na primeira tentativa de cada mensagem
+        var ejected = !available;
+        if (excluded.isEmpty() && allEjected.get() != ejected && allEjected.compareAndSet(!ejected, ejected)) {
+            if (ejected) {
+                log.warn("Nenhum broker saudável disponível; ignorando o estado de saúde na seleção");
+            } else {
+                log.info("Brokers saudáveis disponíveis novamente; seleção volta a considerar o estado de saúde");
+            }
+        }
+
+        if (!available) {
+            for (int i = 0; i < nodes.size(); i++) {
+                if (!excluded.contains(nodes.get(i))) {
+                    weights[i] = Math.max(1, nodes.get(i).weight());
+                }
+            }
+        }
+
+        return strategy == ShardingProperties.Strategy.KEY_HASH && Objects.nonNull(shardKey)
+                ? selectByKey(shardKey, weights)
+                : selectWeighted(weights);
+    }
+
+    /**
+     * @param weights peso efetivo de cada broker, na ordem de {@link #nodes}; {@code 0} exclui o broker
+     */
+    private BrokerNode selectWeighted(double[] weights) {
+        var total = 0.0;
+        for (var weight : weights) {
+            total += weight;
+        }
+        var target = ThreadLocalRandom.current().nextDouble(total);
+        var selected = -1;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                selected = i;
+                target -= weights[i];
+                if (target < 0) {
+                    break;
+                }
+            }
+        }
+        return nodes.get(selected);
+    }
+
+    /**
+     * Rendezvous hashing ponderado: a chave vai para o broker de maior pontuação, e apenas as chaves
+     * do broker removido mudam de destino.
+     *
+     * @param weights peso efetivo de cada broker, na ordem de {@link #nodes}; {@code 0} exclui o broker
+     */
+    private BrokerNode selectByKey(String shardKey, double[] weights) {
+        var selected = -1;
+        var bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= 0) {
+                continue;
+            }
+            var score = weights[i] / -Math.log(unitHash(shardKey, nodes.get(i).name()));
+            if (score > bestScore) {
+                bestScore = score;
+                selected = i;
+            }
+        }
+        return nodes.get(selected);
+    }
+
+    /**
+     * @return valor pseudoaleatório estável no intervalo aberto (0, 1) para o par chave/broker
+     */
+    private static double unitHash(String shardKey, String nodeName) {
+        long hash = 31L * shardKey.hashCode() + nodeName.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return ((hash >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    /**
+     * Acompanha o confirm da tentativa bem-sucedida e o repassa ao {@link CorrelationData} do chamador.
+     *
+     * <p>Cada tentativa usa seu próprio {@link CorrelationData}: o nack gerado pelo fechamento do canal de
+     * uma tentativa que falhou não afeta o broker que aceitou a mensagem nem o chamador. Um confirm que não
+     * chega em {@link ShardingProperties.Health#confirmTimeout()} conta como falha.</p>
+     */
+    private static void trackOutcome(BrokerNode node, CorrelationData attemptCorrelation, CorrelationData callerCorrelation) {
+        if (Objects.isNull(attemptCorrelation)) {
+            node.health().recordSuccess();
+            return;
+        }
+        attemptCorrelation.getFuture()
+                .orTimeout(node.health().confirmTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    var acked = Objects.isNull(error) && confirm.isAck();
+                    if (acked) {
+                        node.health().recordSuccess();
+                    } else {
+                        node.health().recordFailure();
+                    }
+                    if (Objects.nonNull(callerCorrelation)) {
+                        callerCorrelation.getFuture().complete(Objects.isNull(error)
+                                ? confirm
+                                : new CorrelationData.Confirm(false, "Confirm não recebido do broker " + node.name()));
+                    }
+                });
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.brad.campaigningest.publisher;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Propriedades da publicação em múltiplos brokers ({@code campaign.ingest.sharding.*}).
+ *
+ * <p>As demais configurações de conexão e do template (credenciais, SSL, timeouts, <em>publisher
+ * confirms</em>) são herdadas de {@code spring.rabbitmq.*}; cada nó define apenas endereço e peso.</p>
+ *
+ * @param enabled  habilita a publicação em múltiplos brokers
+ * @param strategy estratégia de seleção do broker
+ * @param nodes    brokers independentes que recebem as mensagens
+ * @param health   limites usados para remover e readmitir brokers
+ * @since 1.0
+ */
+@Validated
+@ConfigurationProperties(prefix = "campaign.ingest.sharding")
+public record ShardingProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("WEIGHTED") Strategy strategy,
+                                 @DefaultValue List<@Valid Node> nodes,
+                                 @Valid @DefaultValue Health health) {
+
+    /**
+     * Estratégia de seleção do broker.
+     */
+    public enum Strategy {
+        /**
+         * Sorteio proporcional ao peso efetivo de cada broker.
+         */
+        WEIGHTED,
+        /**
+         * Hash da chave da mensagem (rendezvous ponderado); a mesma chave vai sempre ao mesmo broker saudável.
+         */
+        KEY_HASH
+    }
+
+    /**
+     * @param name   identificador do broker nos logs
+     * @param host   endereço do broker
+     * @param port   porta AMQP do broker
+     * @param weight peso relativo do broker na distribuição
+     */
+    public record Node(@NotBlank(message = "Campo name do broker não pode ser nulo/vazio.")
+                       String name,
+                       @NotBlank(message = "Campo host do broker não pode ser nulo/vazio.")
+                       String host,
+                       @Min(value = 1, message = "Campo port do broker deve estar entre 1 e 65535.")
+                       @Max(value = 65535, message = "Campo port do broker deve estar entre 1 e 65535.")
+                       @DefaultValue("5672") int port,
+                       @Min(value = 1, message = "Campo weight do broker deve ser maior ou igual a 1.")
+                       @DefaultValue("1") int weight) {
+    }
+
+    /**
+     * @param maxLatency             latência média (EWMA) de publicação, ou idade da publicação mais antiga
+     *                               em andamento, acima da qual o broker é removido
+     * @param maxConsecutiveFailures falhas consecutivas (exceções ou nacks) que removem o broker
+     * @param ejectionTime           tempo fora de rotação antes de o broker voltar a receber tráfego
+     * @param warmup                 período em que o tráfego do broker readmitido cresce até o peso total
+     * @param confirmTimeout         prazo para o <em>publisher confirm</em>; sem resposta, conta como falha
+     */
+    public record Health(@DefaultValue("500ms") Duration maxLatency,
+                         @Min(value = 1, message = "Campo max-consecutive-failures deve ser maior ou igual a 1.")
+                         @DefaultValue("3") int maxConsecutiveFailures,
+                         @DefaultValue("30s") Duration ejectionTime,
+                         @DefaultValue("60s") Duration warmup,
+                         @DefaultValue("5s") Duration confirmTimeout) {
+    }
+}
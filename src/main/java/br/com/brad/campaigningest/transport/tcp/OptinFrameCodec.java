@@ -0,0 +1,168 @@
+package br.com.brad.campaigningest.transport.tcp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import br.com.brad.campaigningest.model.request.OptinMessage;
+
+/**
+ * Codificador/decodificador do payload dos frames recebidos pelo listener TCP.
+ *
+ * <h2>Formato do frame de requisição</h2>
+ * <pre>
+ * int32  length         quantidade de bytes após este campo
+ * int32  correlationId  identificador devolvido no ack
+ * int8   format         {@value #FORMAT_JSON} = JSON, {@value #FORMAT_BINARY} = binário
+ * byte[] payload
+ * </pre>
+ *
+ * <h2>Formato binário de {@link OptinMessage}</h2>
+ * <pre>
+ * int16  + UTF-8   email            (tamanho -1 indica nulo)
+ * int16  + UTF-8   name             (tamanho -1 indica nulo)
+ * int64            dateSimulation   epoch-second em UTC ({@link Long#MIN_VALUE} indica nulo)
+ * int32            amount.scale
+ * int16  + bytes   amount.unscaled  complemento de dois (tamanho -1 indica nulo)
+ * </pre>
+ *
+ * <h2>Formato do frame de resposta</h2>
+ * <pre>
+ * int32  length
+ * int32  correlationId
+ * int8   status         {@value #STATUS_ACK}, {@value #STATUS_VALIDATION_ERROR} ou {@value #STATUS_ERROR}
+ * byte[] payload        mensagens em UTF-8 separadas por '\n' (vazio no ack; frame limitado a 1 KiB)
+ * </pre>
+ *
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+public class OptinFrameCodec {
+
+    public static final byte FORMAT_JSON = 1;
+    public static final byte FORMAT_BINARY = 2;
+
+    public static final byte STATUS_ACK = 0;
+    public static final byte STATUS_VALIDATION_ERROR = 1;
+    public static final byte STATUS_ERROR = 2;
+
+    /**
+     * Bytes de cabeçalho após o prefixo de tamanho: {@code correlationId} + {@code format}/{@code status}.
+     */
+    public static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES;
+
+    private static final short NULL_LENGTH = -1;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Decodifica o payload de um frame para {@link OptinMessage}.
+     *
+     * @param format  formato declarado no frame
+     * @param payload bytes do payload; a posição do buffer é consumida
+     * @return a mensagem decodificada (ainda não validada)
+     * @throws IllegalArgumentException quando o formato é desconhecido ou o payload é inválido
+     */
+    public OptinMessage decode(byte format, ByteBuffer payload) {
+        return switch (format) {
+            case FORMAT_JSON -> decodeJson(payload);
+            case FORMAT_BINARY -> decodeBinary(payload);
+            default -> throw new IllegalArgumentException("Formato de frame desconhecido: " + format);
+        };
+    }
+
+    /**
+     * Codifica uma {@link OptinMessage} no formato binário compacto.
+     *
+     * @param message mensagem a ser codificada
+     * @return payload binário pronto para ser enviado em um frame {@value #FORMAT_BINARY}
+     */
+    public byte[] encodeBinary(OptinMessage message) {
+        var email = toBytes(message.email());
+        var name = toBytes(message.name());
+        var unscaled = Objects.isNull(message.amount()) ? null : message.amount().unscaledValue().toByteArray();
+
+        var buffer = ByteBuffer.allocate(sizeOf(email) + sizeOf(name) + Long.BYTES + Integer.BYTES + sizeOf(unscaled));
+        putBytes(buffer, email);
+        putBytes(buffer, name);
+        buffer.putLong(Objects.isNull(message.dateSimulation())
+                ? NULL_DATE
+                : message.dateSimulation().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(Objects.isNull(message.amount()) ? 0 : message.amount().scale());
+        putBytes(buffer, unscaled);
+        return buffer.array();
+    }
+
+    private OptinMessage decodeJson(ByteBuffer payload) {
+        var bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        try {
+            return objectMapper.readValue(bytes, OptinMessage.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Payload JSON inválido.", e);
+        }
+    }
+
+    private OptinMessage decodeBinary(ByteBuffer payload) {
+        try {
+            var email = getString(payload);
+            var name = getString(payload);
+            var epochSecond = payload.getLong();
+            var scale = payload.getInt();
+            var unscaled = getBytes(payload);
+
+            var dateSimulation = epochSecond == NULL_DATE
+                    ? null
+                    : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            var amount = Objects.isNull(unscaled) ? null : new BigDecimal(new BigInteger(unscaled), scale);
+
+            return new OptinMessage(email, name, dateSimulation, amount);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Payload binário inválido.", e);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var bytes = getBytes(buffer);
+        return Objects.isNull(bytes) ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        var length = buffer.getShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] toBytes(String value) {
+        return Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return Short.BYTES + (Objects.isNull(bytes) ? 0 : bytes.length);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (Objects.isNull(bytes)) {
+            buffer.putShort(NULL_LENGTH);
+            return;
+        }
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Campo excede o tamanho máximo do formato binário.");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+}
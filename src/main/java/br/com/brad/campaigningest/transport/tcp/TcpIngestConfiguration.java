@@ -0,0 +1,38 @@
+package br.com.brad.campaigningest.transport.tcp;
+
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.brad.campaigningest.model.request.OptinMessage;
+
+/**
+ * Configuração do listener TCP de ingestão, ativada por {@code campaign.ingest.tcp.enabled=true}.
+ *
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(TcpIngestProperties.class)
+@ConditionalOnProperty(prefix = "campaign.ingest.tcp", name = "enabled", havingValue = "true")
+public class TcpIngestConfiguration {
+
+    /**
+     * Cria o listener TCP ligado ao mesmo consumidor usado pelo endpoint HTTP.
+     *
+     * @param properties     propriedades do listener
+     * @param processMessage consumidor de ingestão exposto por {@code Ingest}
+     * @param objectMapper   mapper usado para decodificar frames JSON
+     * @return o listener TCP, iniciado pelo ciclo de vida do contexto
+     */
+    @Bean
+    public TcpIngestServer tcpIngestServer(TcpIngestProperties properties,
+                                           Consumer<OptinMessage> processMessage,
+                                           ObjectMapper objectMapper) {
+        return new TcpIngestServer(properties, processMessage, new OptinFrameCodec(objectMapper));
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.brad.campaigningest.transport.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import lombok.extern.log4j.Log4j2;
+
+import br.com.brad.campaigningest.exception.RequiredFieldException;
+import br.com.brad.campaigningest.model.request.OptinMessage;
+
+/**
+ * Estado de uma conexão do listener TCP.
+ *
+ * <p>O <em>thread</em> do {@code Selector} apenas lê frames completos do buffer direto de leitura e
+ * escreve os acks prontos no buffer direto de escrita. A decodificação e a publicação são executadas
+ * no pool de <em>workers</em>, por uma fila ordenada exclusiva da conexão: no máximo um <em>worker</em>
+ * processa a conexão por vez, de modo que os acks saem na mesma ordem dos frames, permitindo que o
+ * cliente envie várias requisições sem aguardar as respostas (pipelining).</p>
+ *
+ * <p>Quando a conexão acumula {@code maxPendingFrames} frames sem ack escrito, ou o socket não aceita
+ * todos os acks pendentes, a leitura é suspensa, aplicando <em>backpressure</em> ao produtor.</p>
+ *
+ * <p>Quando o produtor encerra o envio ({@code shutdownOutput}), a leitura é interrompida, mas a conexão
+ * só é fechada depois que os acks de todos os frames já recebidos forem escritos: frames publicados
+ * sempre recebem ack, evitando reenvios duplicados pelo produtor.</p>
+ *
+ * @since 1.0
+ */
+@Log4j2
+class TcpIngestConnection {
+
+    /**
+     * Tamanho máximo de um ack, incluindo o prefixo de tamanho; mensagens de erro maiores são truncadas.
+     */
+    static final int MAX_RESPONSE_SIZE = 1024;
+
+    /**
+     * Tamanho do buffer direto de escrita, suficiente para vários acks por escrita no socket.
+     */
+    static final int WRITE_BUFFER_SIZE = 8 * MAX_RESPONSE_SIZE;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final Consumer<OptinMessage> processMessage;
+    private final OptinFrameCodec codec;
+    private final Executor workers;
+    private final Consumer<TcpIngestConnection> responsesReady;
+    private final int maxFrameSize;
+    private final int maxPendingFrames;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer writeBuffer;
+
+    /**
+     * Frames lidos e ainda não processados; acessada sob o monitor da fila.
+     */
+    private final Queue<Frame> pendingFrames = new ArrayDeque<>();
+    private final Queue<byte[]> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private boolean draining;
+    private boolean inputShutdown;
+    private volatile boolean closed;
+
+    private record Frame(int correlationId, byte format, byte[] payload) {
+    }
+
+    TcpIngestConnection(SocketChannel channel, SelectionKey key, Consumer<OptinMessage> processMessage,
+                        OptinFrameCodec codec, Executor workers, Consumer<TcpIngestConnection> responsesReady,
+                        TcpIngestProperties properties) {
+        this.channel = channel;
+        this.key = key;
+        this.processMessage = processMessage;
+        this.codec = codec;
+        this.workers = workers;
+        this.responsesReady = responsesReady;
+        this.maxFrameSize = properties.maxFrameSize();
+        this.maxPendingFrames = properties.maxPendingFrames();
+        this.readBuffer = ByteBuffer.allocateDirect(Integer.BYTES + maxFrameSize);
+        this.writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Lê os bytes disponíveis no socket e enfileira os frames completos. Executado no <em>thread</em> do selector.
+     *
+     * @throws IOException em falhas de I/O ou violação do protocolo
+     */
+    void onReadable() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            inputShutdown = true;
+        }
+        process();
+    }
+
+    /**
+     * Escreve os acks prontos e retoma a leitura quando possível; fecha a conexão quando o produtor encerrou
+     * o envio e todos os acks foram escritos. Executado no <em>thread</em> do selector.
+     *
+     * @throws IOException em falhas de I/O ou violação do protocolo
+     */
+    void process() throws IOException {
+        if (closed) {
+            return;
+        }
+        boolean flushed;
+        do {
+            drainResponses();
+            flushed = flush();
+        } while (flushed && !responses.isEmpty());
+
+        readBuffer.flip();
+        try {
+            readFrames();
+        } finally {
+            readBuffer.compact();
+        }
+
+        if (inputShutdown && flushed && inFlight.get() == 0) {
+            if (readBuffer.position() > 0) {
+                log.debug("Conexão TCP de ingestão encerrada com frame incompleto de {} bytes", readBuffer.position());
+            }
+            close();
+            return;
+        }
+
+        var interestOps = flushed ? 0 : SelectionKey.OP_WRITE;
+        if (flushed && !inputShutdown && inFlight.get() < maxPendingFrames) {
+            interestOps |= SelectionKey.OP_READ;
+        }
+        key.interestOps(interestOps);
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Falha ao fechar conexão TCP de ingestão", e);
+        }
+    }
+
+    /**
+     * Copia os frames completos do buffer de leitura para a fila da conexão, até o limite de frames pendentes.
+     */
+    private void readFrames() throws IOException {
+        while (readBuffer.remaining() >= Integer.BYTES && inFlight.get() < maxPendingFrames) {
+            var length = readBuffer.getInt(readBuffer.position());
+            if (length < OptinFrameCodec.HEADER_SIZE || length > maxFrameSize) {
+                throw new IOException("Tamanho de frame inválido: " + length);
+            }
+            if (readBuffer.remaining() < Integer.BYTES + length) {
+                return;
+            }
+            readBuffer.position(readBuffer.position() + Integer.BYTES);
+            var correlationId = readBuffer.getInt();
+            var format = readBuffer.get();
+            var payload = new byte[length - OptinFrameCodec.HEADER_SIZE];
+            readBuffer.get(payload);
+
+            inFlight.incrementAndGet();
+            enqueue(new Frame(correlationId, format, payload));
+        }
+    }
+
+    private void enqueue(Frame frame) {
+        synchronized (pendingFrames) {
+            pendingFrames.add(frame);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        workers.execute(this::drainFrames);
+    }
+
+    /**
+     * Processa, em ordem, os frames enfileirados. Executado em um <em>worker</em>.
+     */
+    private void drainFrames() {
+        while (true) {
+            Frame frame;
+            synchronized (pendingFrames) {
+                frame = pendingFrames.poll();
+                if (Objects.isNull(frame)) {
+                    draining = false;
+                    return;
+                }
+            }
+            if (!closed) {
+                responses.add(handleFrame(frame));
+                responsesReady.accept(this);
+            }
+        }
+    }
+
+    private byte[] handleFrame(Frame frame) {
+        OptinMessage message;
+        try {
+            message = codec.decode(frame.format(), ByteBuffer.wrap(frame.payload()));
+        } catch (IllegalArgumentException e) {
+            // erro do produtor: registrado em debug para não inundar o log com um produtor defeituoso
+            log.debug("Frame {} inválido recebido via TCP", frame.correlationId(), e);
+            return encodeResponse(frame.correlationId(), OptinFrameCodec.STATUS_ERROR, e.getMessage());
+        }
+        try {
+            processMessage.accept(message);
+            return encodeResponse(frame.correlationId(), OptinFrameCodec.STATUS_ACK, null);
+        } catch (RequiredFieldException e) {
+            return encodeResponse(frame.correlationId(), OptinFrameCodec.STATUS_VALIDATION_ERROR,
+                    String.join("\n", e.getFields()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao processar frame {} recebido via TCP", frame.correlationId(), e);
+            return encodeResponse(frame.correlationId(), OptinFrameCodec.STATUS_ERROR, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private byte[] encodeResponse(int correlationId, byte status, String message) {
+        var payload = Objects.isNull(message) ? new byte[0] : message.getBytes(StandardCharsets.UTF_8);
+        var payloadSize = Math.min(payload.length, MAX_RESPONSE_SIZE - Integer.BYTES - OptinFrameCodec.HEADER_SIZE);
+
+        return ByteBuffer.allocate(Integer.BYTES + OptinFrameCodec.HEADER_SIZE + payloadSize)
+                .putInt(OptinFrameCodec.HEADER_SIZE + payloadSize)
+                .putInt(correlationId)
+                .put(status)
+                .put(payload, 0, payloadSize)
+                .array();
+    }
+
+    /**
+     * Move os acks prontos para o buffer de escrita enquanto houver espaço.
+     */
+    private void drainResponses() {
+        var response = responses.peek();
+        while (Objects.nonNull(response) && writeBuffer.remaining() >= response.length) {
+            writeBuffer.put(responses.poll());
+            inFlight.decrementAndGet();
+            response = responses.peek();
+        }
+    }
+
+    /**
+     * @return {@code true} se todos os acks do buffer de escrita foram enviados
+     */
+    private boolean flush() throws IOException {
+        writeBuffer.flip();
+        try {
+            channel.write(writeBuffer);
+            return !writeBuffer.hasRemaining();
+        } finally {
+            writeBuffer.compact();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.brad.campaigningest.transport.tcp;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Propriedades do listener TCP de ingestão ({@code campaign.ingest.tcp.*}).
+ *
+ * <p>O listener é opcional e destinado apenas a produtores internos confiáveis;
+ * por padrão fica desabilitado.</p>
+ *
+ * <p>Cada conexão reserva {@code 4 + maxFrameSize} bytes de memória direta para leitura e
+ * {@value TcpIngestConnection#WRITE_BUFFER_SIZE} bytes para os acks; o consumo máximo é limitado por
+ * {@code maxConnections}.</p>
+ *
+ * @param enabled          habilita o listener TCP
+ * @param host             endereço de bind do listener
+ * @param port             porta de escuta; {@code 0} escolhe uma porta livre
+ * @param maxFrameSize     tamanho máximo, em bytes, de um frame (sem contar o prefixo de tamanho)
+ * @param workerThreads    <em>threads</em> que decodificam e publicam os frames
+ * @param maxPendingFrames frames por conexão aguardando ack antes de a leitura ser suspensa
+ * @param maxConnections   conexões simultâneas; novas conexões acima do limite são recusadas
+ * @since 1.0
+ */
+@ConfigurationProperties(prefix = "campaign.ingest.tcp")
+public record TcpIngestProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("0.0.0.0") String host,
+                                  @DefaultValue("9090") int port,
+                                  @DefaultValue("65536") int maxFrameSize,
+                                  @DefaultValue("16") int workerThreads,
+                                  @DefaultValue("256") int maxPendingFrames,
+                                  @DefaultValue("1024") int maxConnections) {
+}
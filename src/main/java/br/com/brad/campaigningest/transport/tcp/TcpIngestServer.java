@@ -0,0 +1,246 @@
+package br.com.brad.campaigningest.transport.tcp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.context.SmartLifecycle;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import br.com.brad.campaigningest.function.Ingest;
+import br.com.brad.campaigningest.model.request.OptinMessage;
+
+/**
+ * Listener TCP baseado em NIO para produtores internos de alta taxa.
+ *
+ * <p>Recebe frames com prefixo de tamanho (ver {@link OptinFrameCodec}) e os entrega ao mesmo
+ * consumidor {@link Ingest#processMessage()} exposto via HTTP, reaproveitando validação,
+ * mapeamento, rastreamento e publicação no RabbitMQ.</p>
+ *
+ * <h2>Observações</h2>
+ * <ul>
+ *   <li>Um único <em>thread</em> ({@code tcp-ingest}) executa o {@link Selector} e faz apenas I/O;</li>
+ *   <li>Decodificação e publicação rodam em um pool fixo de {@code worker-threads}
+ *       ({@code tcp-ingest-worker-N}), com uma fila ordenada por conexão que preserva a ordem dos acks.
+ *       Um broker lento retém apenas os <em>workers</em> das conexões que o utilizam.</li>
+ *   <li>Falhas de protocolo (tamanho de frame inválido) encerram apenas a conexão afetada; falhas ao
+ *       aceitar conexões (ex.: limite de descritores) são registradas sem interromper o listener.</li>
+ *   <li>Conexões acima de {@code max-connections} são recusadas, limitando a memória direta reservada
+ *       pelos buffers das conexões.</li>
+ *   <li>Um erro fatal no loop (ex.: {@link OutOfMemoryError}) encerra o listener: as conexões são
+ *       fechadas e {@link #isRunning()} passa a retornar {@code false}.</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class TcpIngestServer implements SmartLifecycle {
+
+    private final TcpIngestProperties properties;
+    private final Consumer<OptinMessage> processMessage;
+    private final OptinFrameCodec codec;
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread eventLoop;
+    private ExecutorService workers;
+    private boolean rejectingConnections;
+
+    /**
+     * Conexões com acks produzidos pelos <em>workers</em> aguardando escrita pelo selector.
+     */
+    private final Queue<TcpIngestConnection> readyConnections = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(properties.host(), properties.port()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível iniciar o listener TCP de ingestão", e);
+        }
+        workers = Executors.newFixedThreadPool(properties.workerThreads(),
+                Thread.ofPlatform().name("tcp-ingest-worker-", 0).factory());
+        running = true;
+        eventLoop = Thread.ofPlatform().name("tcp-ingest").start(this::runEventLoop);
+        log.info("Listener TCP de ingestão escutando na porta {}", getLocalPort());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (Objects.isNull(selector)) {
+            return;
+        }
+        selector.wakeup();
+        try {
+            eventLoop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return a porta efetivamente associada ao listener, útil quando configurado com porta {@code 0}
+     */
+    public int getLocalPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runEventLoop() {
+        try {
+            while (running) {
+                selector.select();
+                var keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    var key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+                writeReadyResponses();
+            }
+        } catch (Throwable e) {
+            if (running) {
+                running = false;
+                log.error("Loop do listener TCP de ingestão encerrado inesperadamente", e);
+            }
+        } finally {
+            closeQuietly();
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Trata um evento do selector. Falhas afetam apenas a conexão (ou o aceite) em questão;
+     * somente falhas do próprio selector encerram o loop.
+     */
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            try {
+                accept();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao aceitar conexão TCP de ingestão", e);
+            }
+            return;
+        }
+
+        var connection = (TcpIngestConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.onReadable();
+            } else if (key.isWritable()) {
+                connection.process();
+            }
+        } catch (IOException e) {
+            log.debug("Encerrando conexão TCP de ingestão", e);
+            connection.close();
+        } catch (RuntimeException e) {
+            log.warn("Falha inesperada na conexão TCP de ingestão", e);
+            connection.close();
+        }
+    }
+
+    private void accept() throws IOException {
+        var channel = serverChannel.accept();
+        if (Objects.isNull(channel)) {
+            return;
+        }
+        // a chave do ServerSocketChannel também está registrada no selector
+        if (selector.keys().size() > properties.maxConnections()) {
+            if (!rejectingConnections) {
+                rejectingConnections = true;
+                log.warn("Limite de {} conexões TCP de ingestão atingido; recusando novas conexões", properties.maxConnections());
+            }
+            channel.close();
+            return;
+        }
+        if (rejectingConnections) {
+            rejectingConnections = false;
+            log.info("Listener TCP de ingestão voltou a aceitar conexões");
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            var key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new TcpIngestConnection(channel, key, processMessage, codec, workers, this::responsesReady, properties));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Chamado pelos <em>workers</em> quando um ack fica pronto; a escrita é feita pelo selector.
+     */
+    private void responsesReady(TcpIngestConnection connection) {
+        readyConnections.add(connection);
+        selector.wakeup();
+    }
+
+    private void writeReadyResponses() {
+        TcpIngestConnection connection;
+        while (Objects.nonNull(connection = readyConnections.poll())) {
+            if (connection.isClosed()) {
+                continue;
+            }
+            try {
+                connection.process();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Encerrando conexão TCP de ingestão", e);
+                connection.close();
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        for (var key : selector.keys()) {
+            if (key.attachment() instanceof TcpIngestConnection connection) {
+                connection.close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Falha ao encerrar listener TCP de ingestão", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.brad.campaigningest.integration.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jdk.jfr.consumer.RecordingFile;
+
+import br.com.brad.campaigningest.dataMock.DataMock;
+import br.com.brad.campaigningest.jfr.FlightRecorderConfiguration;
+import br.com.brad.campaigningest.jfr.FlightRecorderEndpoint;
+import br.com.brad.campaigningest.jfr.IngestStageEvent;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,flightrecorder")
+@AutoConfigureMockMvc
+public class FlightRecorderEndpointTest {
+
+    private static final String ENDPOINT_FLIGHT_RECORDER = "/actuator/flightrecorder";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @AfterEach
+    void stopRecording() throws Exception {
+        mockMvc.perform(delete(ENDPOINT_FLIGHT_RECORDER));
+    }
+
+    @DisplayName("Dado uma gravacao iniciada pelo endpoint entao o dump deve conter os eventos de etapa da ingestao")
+    @Test
+    void startDumpAndStop() throws Exception {
+        // a publicação precisa durar mais que o threshold de 1 ms do perfil campaign-ingest.jfc
+        doAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("campaign"), eq("campaign"), anyString(), nullable(CorrelationData.class));
+
+        mockMvc.perform(post(ENDPOINT_FLIGHT_RECORDER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+
+        mockMvc.perform(post("/processMessage")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(DataMock.getOptinMessage())))
+                .andExpect(status().isOk());
+
+        var dump = mockMvc.perform(get(ENDPOINT_FLIGHT_RECORDER))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var file = Files.createTempFile("flightrecorder-test-", ".jfr");
+        try {
+            Files.write(file, dump);
+            assertThat(RecordingFile.readAllEvents(file))
+                    .filteredOn(event -> event.getEventType().getName().equals(IngestStageEvent.NAME))
+                    .anyMatch(event -> "PUBLISH".equals(event.getString("stage")));
+        } finally {
+            Files.delete(file);
+        }
+
+        mockMvc.perform(delete(ENDPOINT_FLIGHT_RECORDER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"));
+    }
+
+    @DisplayName("Dado que nao exista gravacao em andamento entao o dump deve retornar 404")
+    @Test
+    void dumpWithoutRecording() throws Exception {
+        mockMvc.perform(get(ENDPOINT_FLIGHT_RECORDER))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Dado que o endpoint nao esteja exposto entao o bean nao deve ser criado")
+    @Test
+    void endpointOnlyWhenExposed() {
+        var runner = new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(EndpointAutoConfiguration.class))
+                .withUserConfiguration(FlightRecorderConfiguration.class);
+
+        runner.run(context -> assertThat(context).doesNotHaveBean(FlightRecorderEndpoint.class));
+        runner.withPropertyValues("management.endpoints.web.exposure.include=flightrecorder")
+                .run(context -> assertThat(context).hasSingleBean(FlightRecorderEndpoint.class));
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.brad.campaigningest.integration.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.connection.SimpleConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthContributorRegistry;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rabbitmq.client.Address;
+import com.rabbitmq.client.Connection;
+
+import br.com.brad.campaigningest.publisher.BrokerNode;
+import br.com.brad.campaigningest.publisher.OptinPublisher;
+import br.com.brad.campaigningest.publisher.ShardedBrokersHealthIndicator;
+import br.com.brad.campaigningest.publisher.ShardedPublisher;
+import br.com.brad.campaigningest.publisher.ShardingProperties;
+
+@SpringBootTest(properties = {
+        "campaign.ingest.sharding.enabled=true",
+        "campaign.ingest.sharding.nodes[0].name=rabbit-a",
+        "campaign.ingest.sharding.nodes[0].host=localhost",
+        "campaign.ingest.sharding.nodes[0].port=1",
+        "campaign.ingest.sharding.nodes[0].weight=2",
+        "campaign.ingest.sharding.nodes[1].name=rabbit-b",
+        "campaign.ingest.sharding.nodes[1].host=127.0.0.1",
+        "campaign.ingest.sharding.nodes[1].port=2",
+        "spring.rabbitmq.connection-timeout=1500ms",
+        "spring.rabbitmq.publisher-confirm-type=correlated",
+        "spring.rabbitmq.template.exchange=campaign-sharded"
+})
+public class ShardedPublisherTest {
+
+    @Autowired
+    private OptinPublisher optinPublisher;
+
+    @Autowired
+    private HealthContributorRegistry healthContributorRegistry;
+
+    @Autowired
+    private Map<String, HealthIndicator> healthIndicators;
+
+    @DisplayName("Dado a publicacao em multiplos brokers habilitada entao cada broker deve herdar spring.rabbitmq.* com o endereco do no")
+    @Test
+    void nodesInheritSpringRabbitProperties() {
+        var publisher = assertInstanceOf(ShardedPublisher.class, optinPublisher);
+        assertTrue(publisher.confirmsEnabled());
+        assertEquals(2, publisher.nodes().size());
+
+        var nodeA = publisher.nodes().get(0);
+        assertEquals("rabbit-a", nodeA.name());
+        assertEquals(2, nodeA.weight());
+        assertTrue(nodeA.confirms());
+        assertEquals("campaign-sharded", nodeA.template().getExchange());
+
+        var connectionFactory = connectionFactory(nodeA);
+        assertEquals(List.of(new Address("localhost", 1)), addresses(connectionFactory));
+        assertEquals("localhost", connectionFactory.getHost());
+        assertEquals(1, connectionFactory.getPort());
+        assertEquals(1500, connectionFactory.getRabbitConnectionFactory().getConnectionTimeout());
+        assertTrue(connectionFactory.isPublisherConfirms());
+
+        var nodeB = publisher.nodes().get(1);
+        assertEquals(List.of(new Address("127.0.0.1", 2)), addresses(connectionFactory(nodeB)));
+        assertEquals(1, nodeB.weight());
+        assertTrue(connectionFactory(nodeA) != connectionFactory(nodeB));
+    }
+
+    @DisplayName("Dado uma nova conexao com o broker entao o BrokerHealth deve ser registrado como BlockedListener")
+    @Test
+    void blockedListenerRegistration() {
+        var node = ((ShardedPublisher) optinPublisher).nodes().get(0);
+        var connection = mock(Connection.class);
+
+        ConnectionListener listener = ReflectionTestUtils.invokeMethod(connectionFactory(node), "getConnectionListener");
+        listener.onCreate(new SimpleConnection(connection, 0));
+
+        verify(connection).addBlockedListener(node.health());
+    }
+
+    @DisplayName("Dado a publicacao em multiplos brokers habilitada entao o health check deve verificar os brokers configurados")
+    @Test
+    void healthContributorReplacesAutoConfigured() {
+        assertInstanceOf(ShardedBrokersHealthIndicator.class, healthContributorRegistry.getContributor("rabbit"));
+        assertThat(healthIndicators.values()).noneMatch(indicator -> indicator.getClass().getSimpleName().equals("RabbitHealthIndicator"));
+
+        var health = ((HealthIndicator) healthContributorRegistry.getContributor("rabbit")).health();
+
+        assertEquals(Status.DOWN, health.getStatus());
+        assertThat(health.getDetails()).containsOnlyKeys("rabbit-a", "rabbit-b");
+        assertEquals(Status.DOWN.getCode(), ((Map<?, ?>) health.getDetails().get("rabbit-a")).get("status"));
+    }
+
+    @DisplayName("Dado um broker sem host ou com peso menor que 1 entao a aplicacao nao deve iniciar")
+    @Test
+    void invalidNodeProperties() {
+        var runner = new ApplicationContextRunner().withUserConfiguration(ShardingPropertiesConfiguration.class);
+
+        runner.withPropertyValues("campaign.ingest.sharding.nodes[0].name=rabbit-a")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("campaign.ingest.sharding.nodes[0].name=rabbit-a",
+                        "campaign.ingest.sharding.nodes[0].host=rabbit-a.internal",
+                        "campaign.ingest.sharding.nodes[0].weight=0")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("campaign.ingest.sharding.nodes[0].name=rabbit-a",
+                        "campaign.ingest.sharding.nodes[0].host=rabbit-a.internal")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    private static List<Address> addresses(CachingConnectionFactory connectionFactory) {
+        return ReflectionTestUtils.invokeMethod(connectionFactory, "getAddresses");
+    }
+
+    private static CachingConnectionFactory connectionFactory(BrokerNode node) {
+        return assertInstanceOf(CachingConnectionFactory.class, node.template().getConnectionFactory());
+    }
+
+    /**
+     * Sem {@code @Configuration}, para não substituir a configuração da aplicação no {@code @SpringBootTest}.
+     */
+    @EnableConfigurationProperties(ShardingProperties.class)
+    static class ShardingPropertiesConfiguration {
+    }
+}
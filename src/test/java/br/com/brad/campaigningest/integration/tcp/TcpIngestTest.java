@@ -0,0 +1,277 @@
+package br.com.brad.campaigningest.integration.tcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.util.Strings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+
+import br.com.brad.campaigningest.dataMock.DataMock;
+import br.com.brad.campaigningest.model.request.OptinMessage;
+import br.com.brad.campaigningest.transport.tcp.OptinFrameCodec;
+import br.com.brad.campaigningest.transport.tcp.TcpIngestServer;
+
+@Log4j2
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = {
+        "campaign.ingest.tcp.enabled=true",
+        "campaign.ingest.tcp.port=0",
+        "campaign.ingest.tcp.max-connections=" + TcpIngestTest.MAX_CONNECTIONS
+})
+public class TcpIngestTest {
+
+    private static final int BENCHMARK_MESSAGES = 20_000;
+    static final int MAX_CONNECTIONS = 8;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private TcpIngestServer tcpIngestServer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int httpPort;
+
+    @DisplayName("Dado que envio frames em pipeline entao deve retornar um ack por frame na mesma ordem")
+    @Test
+    void pipelinedFrames() throws Exception {
+        var codec = new OptinFrameCodec(objectMapper);
+        var invalid = new OptinMessage(Strings.EMPTY, Strings.EMPTY, LocalDateTime.now(), BigDecimal.TEN);
+
+        try (var socket = new Socket("localhost", tcpIngestServer.getLocalPort())) {
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            writeFrame(out, 1, OptinFrameCodec.FORMAT_JSON, objectMapper.writeValueAsBytes(DataMock.getOptinMessage()));
+            writeFrame(out, 2, OptinFrameCodec.FORMAT_BINARY, codec.encodeBinary(DataMock.getOptinMessage()));
+            writeFrame(out, 3, OptinFrameCodec.FORMAT_BINARY, codec.encodeBinary(invalid));
+            writeFrame(out, 4, OptinFrameCodec.FORMAT_JSON, "{".getBytes());
+            out.flush();
+
+            assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(in, 1));
+            assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(in, 2));
+            assertEquals(OptinFrameCodec.STATUS_VALIDATION_ERROR, readStatus(in, 3));
+            assertEquals(OptinFrameCodec.STATUS_ERROR, readStatus(in, 4));
+        }
+
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("campaign"), eq("campaign"), anyString(), nullable(CorrelationData.class));
+    }
+
+    @DisplayName("Dado que uma publicacao fique bloqueada entao as demais conexoes devem continuar recebendo acks")
+    @Test
+    void blockedPublishDoesNotStallOtherConnections() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(30, TimeUnit.SECONDS))
+                .when(rabbitTemplate).convertAndSend(eq("campaign"), eq("campaign"), contains("lento@dominio.com"), nullable(CorrelationData.class));
+        var slow = new OptinMessage("lento@dominio.com", "Cliente Lento", LocalDateTime.now(), BigDecimal.TEN);
+
+        try (var slowSocket = new Socket("localhost", tcpIngestServer.getLocalPort());
+             var fastSocket = new Socket("localhost", tcpIngestServer.getLocalPort())) {
+            var slowOut = new DataOutputStream(new BufferedOutputStream(slowSocket.getOutputStream()));
+            var slowIn = new DataInputStream(new BufferedInputStream(slowSocket.getInputStream()));
+            var fastOut = new DataOutputStream(new BufferedOutputStream(fastSocket.getOutputStream()));
+            var fastIn = new DataInputStream(new BufferedInputStream(fastSocket.getInputStream()));
+
+            writeFrame(slowOut, 1, OptinFrameCodec.FORMAT_JSON, objectMapper.writeValueAsBytes(slow));
+            slowOut.flush();
+
+            fastSocket.setSoTimeout(5_000);
+            for (int i = 0; i < 10; i++) {
+                writeFrame(fastOut, i, OptinFrameCodec.FORMAT_JSON, objectMapper.writeValueAsBytes(DataMock.getOptinMessage()));
+            }
+            fastOut.flush();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(fastIn, i));
+            }
+
+            release.countDown();
+            assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(slowIn, 1));
+        }
+    }
+
+    @DisplayName("Dado que o produtor encerre o envio apos frames em pipeline entao deve receber os acks de todos os frames antes do fechamento")
+    @Test
+    void halfCloseAfterPipelinedFrames() throws Exception {
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("campaign"), eq("campaign"), contains("meio-fechado@dominio.com"),
+                nullable(CorrelationData.class));
+        var message = new OptinMessage("meio-fechado@dominio.com", "Cliente Meio Fechado", LocalDateTime.now(), BigDecimal.TEN);
+
+        try (var socket = new Socket("localhost", tcpIngestServer.getLocalPort())) {
+            socket.setSoTimeout(5_000);
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            for (int i = 0; i < 20; i++) {
+                writeFrame(out, i, OptinFrameCodec.FORMAT_JSON, objectMapper.writeValueAsBytes(message));
+            }
+            out.flush();
+            socket.shutdownOutput();
+
+            for (int i = 0; i < 20; i++) {
+                assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(in, i));
+            }
+            assertEquals(-1, in.read());
+        }
+
+        verify(rabbitTemplate, times(20)).convertAndSend(eq("campaign"), eq("campaign"), contains("meio-fechado@dominio.com"),
+                nullable(CorrelationData.class));
+    }
+
+    @DisplayName("Dado que o limite de conexoes seja atingido entao novas conexoes devem ser recusadas sem afetar as existentes")
+    @Test
+    void connectionLimit() throws Exception {
+        var sockets = new ArrayList<Socket>();
+        try {
+            for (int i = 0; i <= MAX_CONNECTIONS; i++) {
+                var socket = new Socket("localhost", tcpIngestServer.getLocalPort());
+                socket.setSoTimeout(5_000);
+                sockets.add(socket);
+            }
+
+            var acked = 0;
+            for (var socket : sockets) {
+                if (acknowledges(socket)) {
+                    acked++;
+                }
+            }
+            assertTrue(acked > 0 && acked <= MAX_CONNECTIONS, "conexoes aceitas: " + acked);
+            assertTrue(acknowledges(sockets.getFirst()));
+            assertTrue(tcpIngestServer.isRunning());
+        } finally {
+            for (var socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @DisplayName("Benchmark de vazao entre o endpoint HTTP e o listener TCP (-Dbenchmark=true)")
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkHttpVersusTcp() throws Exception {
+        var body = objectMapper.writeValueAsBytes(DataMock.getOptinMessage());
+
+        var httpNanos = measure(() -> sendHttp(body));
+        var tcpNanos = measure(() -> sendTcp(body));
+
+        log.info("HTTP: {} msg/s | TCP: {} msg/s",
+                BENCHMARK_MESSAGES * 1_000_000_000L / httpNanos,
+                BENCHMARK_MESSAGES * 1_000_000_000L / tcpNanos);
+    }
+
+    private void sendHttp(byte[] body) throws Exception {
+        try (var client = HttpClient.newHttpClient()) {
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/processMessage"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            for (int i = 0; i < BENCHMARK_MESSAGES; i++) {
+                assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+            }
+        }
+    }
+
+    private void sendTcp(byte[] body) throws Exception {
+        try (var socket = new Socket("localhost", tcpIngestServer.getLocalPort())) {
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            var writer = CompletableFuture.runAsync(() -> {
+                try {
+                    for (int i = 0; i < BENCHMARK_MESSAGES; i++) {
+                        writeFrame(out, i, OptinFrameCodec.FORMAT_JSON, body);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            for (int i = 0; i < BENCHMARK_MESSAGES; i++) {
+                assertEquals(OptinFrameCodec.STATUS_ACK, readStatus(in, i));
+            }
+            writer.join();
+        }
+    }
+
+    private static long measure(ThrowingRunnable runnable) throws Exception {
+        var start = System.nanoTime();
+        runnable.run();
+        return Math.max(1, System.nanoTime() - start);
+    }
+
+    /**
+     * @return {@code true} se a conexão respondeu com ack; {@code false} se foi encerrada pelo listener
+     */
+    private boolean acknowledges(Socket socket) throws IOException {
+        try {
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            writeFrame(out, 1, OptinFrameCodec.FORMAT_JSON, objectMapper.writeValueAsBytes(DataMock.getOptinMessage()));
+            out.flush();
+            return readStatus(new DataInputStream(socket.getInputStream()), 1) == OptinFrameCodec.STATUS_ACK;
+        } catch (EOFException | SocketException e) {
+            return false;
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, int correlationId, byte format, byte[] payload) throws IOException {
+        out.writeInt(OptinFrameCodec.HEADER_SIZE + payload.length);
+        out.writeInt(correlationId);
+        out.writeByte(format);
+        out.write(payload);
+    }
+
+    private static byte readStatus(DataInputStream in, int expectedCorrelationId) throws IOException {
+        var length = in.readInt();
+        assertEquals(expectedCorrelationId, in.readInt());
+        var status = in.readByte();
+        in.skipNBytes(length - OptinFrameCodec.HEADER_SIZE);
+        return status;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.brad.campaigningest.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import br.com.brad.campaigningest.publisher.BrokerHealth;
+import br.com.brad.campaigningest.publisher.ShardingProperties;
+
+public class BrokerHealthUnitTest {
+
+    private static final ShardingProperties.Health THRESHOLDS =
+            new ShardingProperties.Health(Duration.ofMillis(50), 3, Duration.ofSeconds(10), Duration.ofSeconds(20),
+                    Duration.ofSeconds(5));
+
+    private final AtomicLong clock = new AtomicLong();
+    private BrokerHealth health;
+
+    @BeforeEach
+    void setUp() {
+        health = new BrokerHealth("rabbit-a", THRESHOLDS, clock::get);
+    }
+
+    @DisplayName("Dado que o broker atinja o limite de falhas consecutivas entao deve sair e voltar gradualmente a rotacao")
+    @Test
+    void ejectAndRecoverGraduallyTest() {
+        health.recordFailure();
+        health.recordFailure();
+        assertEquals(1, health.trafficShare());
+
+        health.recordFailure();
+        assertEquals(0, health.trafficShare());
+
+        advance(Duration.ofSeconds(10));
+        assertEquals(0.1, health.trafficShare(), 1e-9);
+
+        advance(Duration.ofSeconds(10));
+        assertEquals(0.55, health.trafficShare(), 1e-9);
+
+        advance(Duration.ofSeconds(10));
+        assertEquals(1, health.trafficShare());
+    }
+
+    @DisplayName("Dado que a latencia media ultrapasse o limite entao deve remover o broker da rotacao")
+    @Test
+    void ejectOnLatencyTest() {
+        health.recordLatency(Duration.ofMillis(10).toNanos());
+        assertEquals(1, health.trafficShare());
+
+        health.recordLatency(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, health.trafficShare());
+    }
+
+    @DisplayName("Dado que o broker readmitido falhe entao deve ser removido novamente")
+    @Test
+    void failureWhileRecoveringTest() {
+        health.recordLatency(Duration.ofSeconds(1).toNanos());
+        advance(Duration.ofSeconds(10));
+        assertEquals(0.1, health.trafficShare(), 1e-9);
+
+        health.recordFailure();
+        assertEquals(0, health.trafficShare());
+    }
+
+    @DisplayName("Dado que o broker sinalize connection.blocked entao nao deve receber trafego ate ser desbloqueado")
+    @Test
+    void blockedTest() {
+        health.handleBlocked("alarme de memória");
+        assertEquals(0, health.trafficShare());
+
+        health.handleUnblocked();
+        assertEquals(1, health.trafficShare());
+    }
+
+    @DisplayName("Dado que uma publicacao fique em andamento alem da latencia maxima entao deve remover o broker sem aguardar o retorno")
+    @Test
+    void stalledInFlightTest() {
+        var stalled = health.sendStarted();
+        advance(Duration.ofMillis(40));
+        var finished = health.sendStarted();
+        health.sendFinished(finished);
+        assertEquals(1, health.trafficShare());
+
+        advance(Duration.ofMillis(20));
+        assertEquals(0, health.trafficShare());
+        assertEquals(BrokerHealth.State.EJECTED, health.state());
+
+        health.sendFinished(stalled);
+        advance(Duration.ofSeconds(10));
+        assertEquals(0.1, health.trafficShare(), 1e-9);
+    }
+
+    @DisplayName("Dado publicacoes concorrentes alem da quantidade de slots entao nenhuma deve permanecer em andamento apos terminarem")
+    @Test
+    void concurrentInFlightTest() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int thread = 0; thread < 8; thread++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        var tokens = new long[20];
+                        for (int j = 0; j < tokens.length; j++) {
+                            tokens[j] = health.sendStarted();
+                            clock.incrementAndGet();
+                        }
+                        for (var token : tokens) {
+                            health.sendFinished(token);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        advance(Duration.ofSeconds(1));
+        assertEquals(1, health.trafficShare());
+        assertEquals(BrokerHealth.State.HEALTHY, health.state());
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
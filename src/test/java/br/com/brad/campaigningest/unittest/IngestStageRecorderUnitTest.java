@@ -0,0 +1,85 @@
+package br.com.brad.campaigningest.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+import br.com.brad.campaigningest.jfr.IngestStage;
+import br.com.brad.campaigningest.jfr.IngestStageEvent;
+import br.com.brad.campaigningest.jfr.IngestStageRecorder;
+
+public class IngestStageRecorderUnitTest {
+
+    private static final String ROUTING_KEY = "campaign";
+
+    @DisplayName("Dado que o processamento conclua com confirm entao deve registrar um evento por etapa")
+    @Test
+    void recordStagesTest() throws Exception {
+        var events = record(() -> {
+            var recorder = new IngestStageRecorder(ROUTING_KEY);
+            recorder.begin(IngestStage.VALIDATE);
+            recorder.begin(IngestStage.MAP);
+            recorder.begin(IngestStage.SERIALIZE);
+            recorder.payload("{\"name\":\"João\"}");
+            recorder.begin(IngestStage.PUBLISH);
+            var correlationData = recorder.awaitConfirm(true);
+            recorder.end();
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        });
+
+        assertEquals(List.of("VALIDATE", "MAP", "SERIALIZE", "PUBLISH", "CONFIRM"),
+                events.stream().map(event -> event.getString("stage")).toList());
+        assertEquals("ACK", events.get(4).getString("outcome"));
+        assertEquals(16, events.get(3).getLong("payloadSize"));
+        assertEquals(ROUTING_KEY, events.get(3).getString("routingKey"));
+    }
+
+    @DisplayName("Dado que o processamento falhe entao deve registrar a etapa com o nome da excecao")
+    @Test
+    void recordFailureTest() throws Exception {
+        var events = record(() -> {
+            var recorder = new IngestStageRecorder(ROUTING_KEY);
+            recorder.begin(IngestStage.VALIDATE);
+            recorder.fail(new IllegalArgumentException());
+            recorder.end();
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("IllegalArgumentException", events.get(0).getString("outcome"));
+    }
+
+    @DisplayName("Dado que publisher confirms estejam desabilitados ou sem gravacao ativa entao nao deve criar CorrelationData")
+    @Test
+    void awaitConfirmWithoutConfirmsTest() {
+        var recorder = new IngestStageRecorder(ROUTING_KEY);
+
+        assertNull(recorder.awaitConfirm(false));
+        assertNull(recorder.awaitConfirm(true));
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws Exception {
+        var file = Files.createTempFile("ingest-stage-", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(IngestStageEvent.NAME);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(IngestStageEvent.NAME))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package br.com.brad.campaigningest.unittest;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -19,7 +21,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,6 +32,7 @@ import br.com.brad.campaigningest.dataMock.DataMock;
 import br.com.brad.campaigningest.exception.RequiredFieldException;
 import br.com.brad.campaigningest.function.Ingest;
 import br.com.brad.campaigningest.model.request.OptinMessage;
+import br.com.brad.campaigningest.publisher.OptinPublisher;
 
 @ExtendWith(MockitoExtension.class)
 public class IngestUnitTest {
@@ -45,7 +47,7 @@ public class IngestUnitTest {
     private Tracer tracer;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OptinPublisher optinPublisher;
 
     @Mock
     private ObjectMapper objectMapper;
@@ -74,6 +76,7 @@ public class IngestUnitTest {
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"email\":\"cliente@dominio.com\",\"name\":\"Cliente Teste\",\"dateSimulation\":\"2025-09-02T20:45:23\",\"amount\":10}");
 
         assertDoesNotThrow(() -> ingest.processMessage().accept(input));
+        verify(optinPublisher).publish(eq("campaign"), eq("campaign"), eq(input.email()), anyString(), any());
         verify(span).end();
     }
 
@@ -0,0 +1,68 @@
+package br.com.brad.campaigningest.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.brad.campaigningest.dataMock.DataMock;
+import br.com.brad.campaigningest.model.request.OptinMessage;
+import br.com.brad.campaigningest.transport.tcp.OptinFrameCodec;
+
+public class OptinFrameCodecUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final OptinFrameCodec codec = new OptinFrameCodec(objectMapper);
+
+    @DisplayName("Dado que seja enviado payload binario entao deve decodificar a mesma mensagem")
+    @Test
+    void decodeBinaryTest() {
+        var base = DataMock.getOptinMessage();
+        var input = new OptinMessage(base.email(), base.name(), base.dateSimulation().truncatedTo(ChronoUnit.SECONDS), base.amount());
+
+        var result = codec.decode(OptinFrameCodec.FORMAT_BINARY, ByteBuffer.wrap(codec.encodeBinary(input)));
+
+        assertEquals(input, result);
+    }
+
+    @DisplayName("Dado que seja enviado payload binario com campos nulos entao deve decodificar campos nulos")
+    @Test
+    void decodeBinaryWithNullFieldsTest() {
+        var input = new OptinMessage(null, null, null, null);
+
+        var result = codec.decode(OptinFrameCodec.FORMAT_BINARY, ByteBuffer.wrap(codec.encodeBinary(input)));
+
+        assertNull(result.email());
+        assertNull(result.dateSimulation());
+        assertNull(result.amount());
+    }
+
+    @DisplayName("Dado que seja enviado payload JSON entao deve decodificar a mensagem")
+    @Test
+    void decodeJsonTest() {
+        var json = "{\"email\":\"cliente@dominio.com\",\"name\":\"Cliente Teste\",\"dateSimulation\":\"2025-09-02T20:45:23\",\"amount\":10}";
+
+        var result = codec.decode(OptinFrameCodec.FORMAT_JSON, ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("cliente@dominio.com", result.email());
+        assertEquals("Cliente Teste", result.name());
+    }
+
+    @DisplayName("Dado que seja enviado payload truncado ou formato desconhecido entao deve retornar erro")
+    @Test
+    void decodeInvalidPayloadTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(OptinFrameCodec.FORMAT_BINARY, ByteBuffer.wrap(new byte[] {0, 5, 1})));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode((byte) 9, ByteBuffer.allocate(0)));
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.brad.campaigningest.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.actuate.health.Status;
+
+import br.com.brad.campaigningest.publisher.BrokerHealth;
+import br.com.brad.campaigningest.publisher.BrokerNode;
+import br.com.brad.campaigningest.publisher.ShardedBrokersHealthIndicator;
+import br.com.brad.campaigningest.publisher.ShardingProperties;
+
+public class ShardedBrokersHealthIndicatorUnitTest {
+
+    private static final ShardingProperties.Health THRESHOLDS =
+            new ShardingProperties.Health(Duration.ofMillis(50), 3, Duration.ofSeconds(10), Duration.ofSeconds(20),
+                    Duration.ofSeconds(5));
+
+    @DisplayName("Dado que ao menos um broker esteja acessivel e em rotacao entao deve retornar UP com o detalhe de cada broker")
+    @Test
+    void upWhenAnyBrokerAvailableTest() {
+        var indicator = new ShardedBrokersHealthIndicator(List.of(node("rabbit-a", true), node("rabbit-b", false)));
+
+        var health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        var rabbitA = (Map<?, ?>) health.getDetails().get("rabbit-a");
+        assertEquals("UP", rabbitA.get("status"));
+        assertEquals("3.13.7", rabbitA.get("version"));
+        assertEquals(BrokerHealth.State.HEALTHY, rabbitA.get("state"));
+        assertEquals(1.0, rabbitA.get("trafficShare"));
+        var rabbitB = (Map<?, ?>) health.getDetails().get("rabbit-b");
+        assertEquals("DOWN", rabbitB.get("status"));
+    }
+
+    @DisplayName("Dado que todos os brokers acessiveis estejam fora de rotacao entao deve retornar DOWN")
+    @Test
+    void downWhenReachableBrokersAreOutOfRotationTest() {
+        var rabbitA = node("rabbit-a", true);
+        rabbitA.health().handleBlocked("alarme de memória");
+        for (int i = 0; i < THRESHOLDS.maxConsecutiveFailures(); i++) {
+            rabbitA.health().recordFailure();
+        }
+        var indicator = new ShardedBrokersHealthIndicator(List.of(rabbitA, node("rabbit-b", false)));
+
+        var health = indicator.health();
+
+        assertEquals(Status.DOWN, health.getStatus());
+        var details = (Map<?, ?>) health.getDetails().get("rabbit-a");
+        assertEquals("UP", details.get("status"));
+        assertEquals(true, details.get("blocked"));
+        assertEquals(BrokerHealth.State.EJECTED, details.get("state"));
+        assertEquals(0.0, details.get("trafficShare"));
+    }
+
+    private static BrokerNode node(String name, boolean reachable) {
+        var template = mock(RabbitTemplate.class);
+        if (reachable) {
+            when(template.execute(any())).thenReturn("3.13.7");
+        } else {
+            when(template.execute(any())).thenThrow(new AmqpConnectException(new ConnectException("Connection refused")));
+        }
+        return new BrokerNode(name, 1, template, false, new BrokerHealth(name, THRESHOLDS));
+    }
+}
@@ -0,0 +1,372 @@
+package br.com.brad.campaigningest.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+
+import br.com.brad.campaigningest.publisher.BrokerHealth;
+import br.com.brad.campaigningest.publisher.BrokerNode;
+import br.com.brad.campaigningest.publisher.ShardedPublisher;
+import br.com.brad.campaigningest.publisher.ShardingProperties;
+
+public class ShardedPublisherUnitTest {
+
+    private static final String EXCHANGE = "campaign";
+    private static final ShardingProperties.Health THRESHOLDS =
+            new ShardingProperties.Health(Duration.ofMillis(20), 3, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                    Duration.ofMillis(200));
+
+    @DisplayName("Dado que um broker esteja lento entao deve ser removido e a vazao deve ser mantida pelos demais")
+    @Test
+    void stalledBrokerTest() {
+        var a = new BrokerStandIn();
+        var b = new BrokerStandIn();
+        var c = new BrokerStandIn();
+        b.stallMillis = 100;
+        var publisher = new ShardedPublisher(
+                List.of(node("rabbit-a", a, System::nanoTime), node("rabbit-b", b, System::nanoTime), node("rabbit-c", c, System::nanoTime)),
+                ShardingProperties.Strategy.WEIGHTED);
+
+        var start = System.nanoTime();
+        for (int i = 0; i < 300; i++) {
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, new CorrelationData());
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(b.received.get() <= 1);
+        assertEquals(300, a.received.get() + b.received.get() + c.received.get());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "elapsed " + elapsed);
+    }
+
+    @DisplayName("Dado que um broker falhe entao deve publicar em outro broker e remove-lo apos as falhas consecutivas")
+    @Test
+    void failoverTest() {
+        var a = new BrokerStandIn();
+        var b = new BrokerStandIn();
+        a.failing = true;
+        var publisher = new ShardedPublisher(
+                List.of(node("rabbit-a", a, System::nanoTime), node("rabbit-b", b, System::nanoTime)),
+                ShardingProperties.Strategy.WEIGHTED);
+
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, new CorrelationData());
+        }
+
+        assertEquals(100, b.received.get());
+        assertEquals(0, a.received.get());
+        assertTrue(a.attempts.get() <= 3);
+    }
+
+    @DisplayName("Dado a estrategia KEY_HASH entao a mesma chave deve ir ao mesmo broker e apenas chaves do broker removido devem mudar")
+    @Test
+    void keyHashTest() {
+        var standIns = List.of(new BrokerStandIn(), new BrokerStandIn(), new BrokerStandIn());
+        var nodes = List.of(node("rabbit-a", standIns.get(0), System::nanoTime),
+                node("rabbit-b", standIns.get(1), System::nanoTime),
+                node("rabbit-c", standIns.get(2), System::nanoTime));
+        var publisher = new ShardedPublisher(nodes, ShardingProperties.Strategy.KEY_HASH);
+
+        var before = route(publisher, standIns);
+        assertEquals(before, route(publisher, standIns));
+
+        nodes.get(0).health().handleBlocked("alarme de memória");
+        var after = route(publisher, standIns);
+
+        before.forEach((key, broker) -> {
+            if (broker == 0) {
+                assertTrue(after.get(key) != 0);
+            } else {
+                assertEquals(broker, after.get(key));
+            }
+        });
+    }
+
+    @DisplayName("Dado que o broker removido cumpra o tempo de quarentena entao deve voltar gradualmente a receber trafego")
+    @Test
+    void gradualRecoveryTest() {
+        var clock = new AtomicLong();
+        var a = new BrokerStandIn();
+        var b = new BrokerStandIn();
+        var c = new BrokerStandIn();
+        var nodeA = node("rabbit-a", a, clock::get);
+        var publisher = new ShardedPublisher(List.of(nodeA, node("rabbit-b", b, clock::get), node("rabbit-c", c, clock::get)),
+                ShardingProperties.Strategy.WEIGHTED);
+
+        for (int i = 0; i < THRESHOLDS.maxConsecutiveFailures(); i++) {
+            nodeA.health().recordFailure();
+        }
+        publishMany(publisher, 1000);
+        assertEquals(0, a.received.get());
+
+        clock.addAndGet(THRESHOLDS.ejectionTime().toNanos());
+        publishMany(publisher, 1000);
+        var duringWarmup = a.received.getAndSet(0);
+        assertTrue(duringWarmup > 0 && duringWarmup < 150, "durante warmup: " + duringWarmup);
+
+        clock.addAndGet(THRESHOLDS.warmup().toNanos());
+        publishMany(publisher, 1000);
+        assertTrue(a.received.get() > 200, "apos warmup: " + a.received.get());
+    }
+
+    @DisplayName("Dado que um broker bloqueie indefinidamente uma publicacao entao os demais brokers devem continuar recebendo de varias threads")
+    @Test
+    void blockedBrokerTest() throws Exception {
+        var a = new BrokerStandIn();
+        var b = new BrokerStandIn();
+        var c = new BrokerStandIn();
+        var neverReleased = new CountDownLatch(1);
+        b.blockUntil = neverReleased;
+        var publisher = new ShardedPublisher(
+                List.of(node("rabbit-a", a, System::nanoTime), node("rabbit-b", b, System::nanoTime), node("rabbit-c", c, System::nanoTime)),
+                ShardingProperties.Strategy.WEIGHTED);
+
+        var executor = Executors.newFixedThreadPool(5);
+        try {
+            executor.execute(() -> {
+                while (b.entered.getCount() > 0) {
+                    publisher.publish(EXCHANGE, EXCHANGE, null, "payload", null);
+                }
+            });
+            assertTrue(b.entered.await(5, TimeUnit.SECONDS));
+            Thread.sleep(THRESHOLDS.maxLatency().multipliedBy(2).toMillis());
+            var receivedBefore = a.received.get() + c.received.get();
+
+            var publishers = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+                publishers.add(executor.submit(() -> publishMany(publisher, 250)));
+            }
+            for (var future : publishers) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            assertEquals(1, b.attempts.get());
+            assertEquals(0, b.received.get());
+            assertEquals(receivedBefore + 1000, a.received.get() + c.received.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Dado publisher confirms habilitados e um nack do broker entao deve registrar a falha e repassar o nack ao chamador")
+    @Test
+    void nackTest() throws Exception {
+        var a = new BrokerStandIn();
+        a.confirm = new CorrelationData.Confirm(false, "nack");
+        var nodeA = confirmingNode("rabbit-a", a);
+        var publisher = new ShardedPublisher(List.of(nodeA), ShardingProperties.Strategy.WEIGHTED);
+        assertTrue(publisher.confirmsEnabled());
+
+        for (int i = 0; i < THRESHOLDS.maxConsecutiveFailures(); i++) {
+            var correlationData = new CorrelationData();
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, correlationData);
+
+            assertFalse(confirmOf(correlationData).isAck());
+            assertFalse(a.correlations.contains(correlationData));
+        }
+        assertEquals(BrokerHealth.State.EJECTED, nodeA.health().state());
+    }
+
+    @DisplayName("Dado que uma tentativa falhe com nack entao o chamador deve receber apenas o confirm do broker que aceitou a mensagem")
+    @Test
+    void failoverWithConfirmsTest() throws Exception {
+        var a = new BrokerStandIn();
+        var b = new BrokerStandIn();
+        a.failing = true;
+        b.confirm = new CorrelationData.Confirm(true, null);
+        var nodeB = confirmingNode("rabbit-b", b);
+        var publisher = new ShardedPublisher(List.of(confirmingNode("rabbit-a", a), nodeB),
+                ShardingProperties.Strategy.WEIGHTED);
+
+        for (int i = 0; i < 20; i++) {
+            var correlationData = new CorrelationData();
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, correlationData);
+
+            assertTrue(confirmOf(correlationData).isAck());
+        }
+        assertEquals(20, b.received.get());
+        assertEquals(BrokerHealth.State.HEALTHY, nodeB.health().state());
+    }
+
+    @DisplayName("Dado que o confirm nao chegue no prazo entao deve registrar a falha e repassar um nack ao chamador")
+    @Test
+    void confirmTimeoutTest() throws Exception {
+        var a = new BrokerStandIn();
+        var nodeA = confirmingNode("rabbit-a", a);
+        var publisher = new ShardedPublisher(List.of(nodeA), ShardingProperties.Strategy.WEIGHTED);
+
+        for (int i = 0; i < THRESHOLDS.maxConsecutiveFailures(); i++) {
+            var correlationData = new CorrelationData();
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, correlationData);
+
+            assertFalse(confirmOf(correlationData).isAck());
+        }
+        assertEquals(BrokerHealth.State.EJECTED, nodeA.health().state());
+    }
+
+    @DisplayName("Dado um RabbitTemplate real com publisher confirms entao o ack e o nack do canal devem chegar ao chamador e o destroy deve fechar a conexao")
+    @Test
+    void rabbitTemplateConfirmCallbackTest() throws Exception {
+        var confirmListeners = new CopyOnWriteArrayList<ConfirmListener>();
+        var nextPublishSeqNo = new AtomicLong(1);
+        var channel = mock(Channel.class);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getNextPublishSeqNo()).thenAnswer(invocation -> nextPublishSeqNo.get());
+        doAnswer(invocation -> nextPublishSeqNo.getAndIncrement())
+                .when(channel).basicPublish(anyString(), anyString(), anyBoolean(), any(), any());
+        doAnswer(invocation -> {
+            confirmListeners.add(invocation.getArgument(0));
+            return null;
+        }).when(channel).addConfirmListener(any(ConfirmListener.class));
+
+        var connection = mock(Connection.class);
+        when(connection.isOpen()).thenReturn(true);
+        when(connection.createChannel()).thenReturn(channel);
+        var rabbitConnectionFactory = mock(ConnectionFactory.class, invocation ->
+                invocation.getMethod().getReturnType() == Connection.class ? connection : RETURNS_DEFAULTS.answer(invocation));
+
+        var connectionFactory = new CachingConnectionFactory(rabbitConnectionFactory);
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        var node = new BrokerNode("rabbit-a", 1, new RabbitTemplate(connectionFactory), connectionFactory.isPublisherConfirms(),
+                new BrokerHealth("rabbit-a", new ShardingProperties.Health(Duration.ofSeconds(5), 3, Duration.ofMinutes(1),
+                        Duration.ofMinutes(1), Duration.ofSeconds(5))));
+        var publisher = new ShardedPublisher(List.of(node), ShardingProperties.Strategy.WEIGHTED);
+
+        var acked = new CorrelationData();
+        publisher.publish(EXCHANGE, EXCHANGE, null, "payload-1", acked);
+        var nacked = new CorrelationData();
+        publisher.publish(EXCHANGE, EXCHANGE, null, "payload-2", nacked);
+        assertFalse(acked.getFuture().isDone());
+
+        for (var listener : confirmListeners) {
+            listener.handleAck(1, false);
+            listener.handleNack(2, false);
+        }
+
+        assertTrue(confirmOf(acked).isAck());
+        assertFalse(confirmOf(nacked).isAck());
+
+        publisher.destroy();
+        verify(connection).close(anyInt());
+    }
+
+    private static void publishMany(ShardedPublisher publisher, int count) {
+        for (int i = 0; i < count; i++) {
+            publisher.publish(EXCHANGE, EXCHANGE, null, "payload-" + i, new CorrelationData());
+        }
+    }
+
+    private static Map<String, Integer> route(ShardedPublisher publisher, List<BrokerStandIn> standIns) {
+        standIns.forEach(standIn -> standIn.payloads.clear());
+        for (int i = 0; i < 200; i++) {
+            publisher.publish(EXCHANGE, EXCHANGE, "cliente" + i + "@dominio.com", "cliente" + i, new CorrelationData());
+        }
+        var routes = new HashMap<String, Integer>();
+        for (int broker = 0; broker < standIns.size(); broker++) {
+            for (var payload : standIns.get(broker).payloads) {
+                routes.put(payload, broker);
+            }
+        }
+        return routes;
+    }
+
+    private static BrokerNode node(String name, BrokerStandIn standIn, LongSupplier clock) {
+        return new BrokerNode(name, 1, standIn, false, new BrokerHealth(name, THRESHOLDS, clock));
+    }
+
+    private static BrokerNode confirmingNode(String name, BrokerStandIn standIn) {
+        return new BrokerNode(name, 1, standIn, true, new BrokerHealth(name, THRESHOLDS));
+    }
+
+    private static CorrelationData.Confirm confirmOf(CorrelationData correlationData) throws Exception {
+        return correlationData.getFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Substituto local de um broker: conta as mensagens recebidas e pode simular lentidão, bloqueio,
+     * indisponibilidade e <em>publisher confirms</em>.
+     */
+    private static class BrokerStandIn extends RabbitTemplate {
+
+        private final AtomicInteger received = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final Set<String> payloads = ConcurrentHashMap.newKeySet();
+        private final Set<CorrelationData> correlations = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile long stallMillis;
+        private volatile CountDownLatch blockUntil;
+        private volatile boolean failing;
+        private volatile CorrelationData.Confirm confirm;
+
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object object, CorrelationData correlationData) {
+            attempts.incrementAndGet();
+            if (Objects.nonNull(correlationData)) {
+                correlations.add(correlationData);
+            }
+            if (failing) {
+                if (Objects.nonNull(correlationData)) {
+                    correlationData.getFuture().complete(new CorrelationData.Confirm(false, "Canal fechado"));
+                }
+                throw new AmqpException("Broker indisponível");
+            }
+            entered.countDown();
+            if (Objects.nonNull(blockUntil)) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (stallMillis > 0) {
+                try {
+                    Thread.sleep(stallMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            payloads.add(String.valueOf(object));
+            received.incrementAndGet();
+            if (Objects.nonNull(correlationData) && Objects.nonNull(confirm)) {
+                correlationData.getFuture().complete(confirm);
+            }
+        }
+    }
+}